@@ -0,0 +1,75 @@
+import java.util.LinkedHashMap;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class AlgorithmRegistry {
+	private LinkedHashMap<String, Supplier<CoverageAlgorithm>> factories = new LinkedHashMap<String, Supplier<CoverageAlgorithm>>(); // by name, in the order of the result columns
+
+
+	/**
+	 * Returns a registry with the built-in algorithms (in the column order of the result
+	 * file) followed by the algorithms that other jars on the class path provide as
+	 * CoverageAlgorithm services (META-INF/services/CoverageAlgorithm).
+	 * @return The registry.
+	 */
+	public static AlgorithmRegistry getDefault() {
+		AlgorithmRegistry registry = new AlgorithmRegistry();
+		registry.register(Baseline::new);
+		registry.register(Optimal::new);
+		registry.register(ZoomOut::new);
+		registry.register(Arbitrary::new);
+		registry.register(EpsilonGreedy::new);
+		registry.register(QLearning::new);
+		registry.register(QLearningEG::new);
+		registry.register(Sarsa::new);
+		registry.register(EpsilonGreedyActualDO::new);
+		registry.register(EpsilonGreedyIntendedDO::new);
+		registry.register(OneHopArbitrary::new);
+		registry.register(OneHopOptimal::new);
+		for (CoverageAlgorithm provider : ServiceLoader.load(CoverageAlgorithm.class)) {
+			Class<? extends CoverageAlgorithm> type = provider.getClass();
+			registry.register(() -> {
+				try {
+					return type.getDeclaredConstructor().newInstance();
+				} catch (ReflectiveOperationException e) {
+					throw new IllegalStateException("Cannot create "+type.getName(), e);
+				}
+			});
+		}
+		return registry;
+	}
+
+
+	/**
+	 * Adds an algorithm under its name. An algorithm with the same name is replaced and keeps
+	 * its position (e.g. MaxMinOptimal replaces Optimal).
+	 * @param factory Creates a new instance of the algorithm for each run.
+	 */
+	public void register(Supplier<CoverageAlgorithm> factory) {
+		factories.put(factory.get().getName(), factory);
+	}
+
+
+	/**
+	 * @param name The name of a registered algorithm.
+	 * @return A new instance of the algorithm.
+	 */
+	public CoverageAlgorithm create(String name) {
+		Supplier<CoverageAlgorithm> factory = factories.get(name);
+		if (factory == null)
+			throw new IllegalArgumentException("Unknown algorithm "+name+" (registered: "+String.join(",", getNames())+")");
+		return factory.get();
+	}
+
+
+	/**
+	 * @return The names of the registered algorithms in the column order of the result file.
+	 */
+	public String[] getNames() {
+		return factories.keySet().toArray(new String[0]);
+	}
+}
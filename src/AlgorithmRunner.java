@@ -0,0 +1,106 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class AlgorithmRunner {
+	private ExecutorService executor;
+	private ArrayList<CompletableFuture<?>> tasks = new ArrayList<CompletableFuture<?>>();
+	private LinkedHashMap<String,Long> times = new LinkedHashMap<String,Long>(); // wall time of each finished algorithm in ms
+
+
+	/**
+	 * Constructor
+	 * Runs the algorithms of a run concurrently on a fixed pool of threads. The algorithms
+	 * are independent (each one has its own settings and random number generators and only
+	 * reads the shared trajectory), so they produce the same results as one after another.
+	 * Algorithms start in the order they are submitted, so the longest ones should go first.
+	 * @param threads The number of algorithms that run at the same time (1 = one after another).
+	 */
+	public AlgorithmRunner(int threads) {
+		this.executor = Executors.newFixedThreadPool(Math.max(1, threads));
+	}
+
+
+	/**
+	 * Submits an algorithm.
+	 * @param name The name the wall time of the algorithm is reported under.
+	 * @param algorithm Runs the algorithm and returns what later algorithms need from it.
+	 * @return The result of the algorithm once it finishes.
+	 */
+	public synchronized <T> CompletableFuture<T> submit(String name, Supplier<T> algorithm) {
+		CompletableFuture<T> task = CompletableFuture.supplyAsync(timed(name, algorithm), executor);
+		tasks.add(task);
+		return task;
+	}
+
+
+	/**
+	 * Submits an algorithm that needs the result of another one. It does not hold a thread
+	 * while it waits.
+	 * @param name The name the wall time of the algorithm is reported under.
+	 * @param dependency The result of the algorithm it waits for.
+	 * @param algorithm Runs the algorithm with the result of the dependency.
+	 * @return The result of the algorithm once it finishes.
+	 */
+	public synchronized <T,U> CompletableFuture<U> submitAfter(String name, CompletableFuture<T> dependency, Function<T,U> algorithm) {
+		CompletableFuture<U> task = dependency.thenApplyAsync(value -> timed(name, () -> algorithm.apply(value)).get(), executor);
+		tasks.add(task);
+		return task;
+	}
+
+
+	/**
+	 * Wraps an algorithm so it records its wall time when it finishes.
+	 * @param name The name the wall time is reported under.
+	 * @param algorithm The algorithm.
+	 * @return The wrapped algorithm.
+	 */
+	private <T> Supplier<T> timed(String name, Supplier<T> algorithm) {
+		return () -> {
+			long startTime = System.currentTimeMillis();
+			T result = algorithm.get();
+			synchronized (times) {
+				times.put(name, System.currentTimeMillis()-startTime);
+			}
+			return result;
+		};
+	}
+
+
+	/**
+	 * Waits for all submitted algorithms and stops the threads. An exception of an algorithm
+	 * is thrown here (wrapped in a CompletionException).
+	 */
+	public void awaitAll() {
+		try {
+			ArrayList<CompletableFuture<?>> submitted;
+			synchronized (this) {
+				submitted = new ArrayList<CompletableFuture<?>>(tasks);
+			}
+			for (CompletableFuture<?> task : submitted)
+				task.join();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+
+	/**
+	 * @param name The name of an algorithm.
+	 * @return The wall time of the algorithm in ms (0 if it has not finished).
+	 */
+	public long getTime(String name) {
+		synchronized (times) {
+			Long time = times.get(name);
+			return (time == null) ? 0 : time;
+		}
+	}
+}
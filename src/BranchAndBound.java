@@ -0,0 +1,324 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class BranchAndBound {
+	static final int TASKS_PER_THREAD = 8; // number of subtrees generated for each thread of the pool
+	private CoverageTable coverage; // detected objects of each camera and zoom at the current step
+	private int[][] zoomOptions; // [camera] zoom indexes the camera may take, in ascending order
+	private long[][] reachMasks; // [camera] objects the camera can detect with any of its zoom options
+	private int splitDepth; // number of leading cameras (assigned first) whose zooms are split into parallel tasks
+	private AtomicInteger sharedMinK; // the best min k found by any task so far
+	private boolean firstOnly; // stop at the first configuration that beats the initial best min k
+	private Search result;
+
+
+	/**
+	 * Constructor (serial search over all zoom levels)
+	 * @param coverage The objects detected by each camera with each zoom (FOV) at the current step.
+	 */
+	public BranchAndBound(CoverageTable coverage) {
+		this(coverage, allZooms(coverage), null);
+	}
+
+
+	/**
+	 * Constructor
+	 * @param coverage The objects detected by each camera with each zoom (FOV) at the current step.
+	 * @param zoomOptions The zoom indexes (in ascending order) each camera may take.
+	 * @param pool The pool that runs the search in parallel, or null for a serial search.
+	 */
+	public BranchAndBound(CoverageTable coverage, int[][] zoomOptions, ForkJoinPool pool) {
+		this(coverage, zoomOptions, pool, 0);
+	}
+
+
+	/**
+	 * Constructor (warm started search)
+	 * @param coverage The objects detected by each camera with each zoom (FOV) at the current step.
+	 * @param zoomOptions The zoom indexes (in ascending order) each camera may take.
+	 * @param pool The pool that runs the search in parallel, or null for a serial search.
+	 * @param seedMinK A min k that some configuration is known to reach (e.g. the configuration
+	 * of the previous step), or 0. Subtrees that can not reach it are pruned from the start;
+	 * since the maximum is at least as large, the selected configuration does not change.
+	 */
+	public BranchAndBound(CoverageTable coverage, int[][] zoomOptions, ForkJoinPool pool, int seedMinK) {
+		Search root = prepare(coverage, zoomOptions);
+		root.bestMinK = Math.max(0, seedMinK-1);
+		int camCount = coverage.getCameraCount();
+		if (pool == null || pool.getParallelism() < 2) {
+			root.search(camCount);
+			result = root;
+		}
+		else {
+			long tasks = 1;
+			while (splitDepth < camCount && tasks < (long)TASKS_PER_THREAD * pool.getParallelism()) {
+				tasks *= zoomOptions[camCount-1-splitDepth].length;
+				splitDepth++;
+			}
+			result = pool.invoke(new SubtreeTask(root, camCount));
+		}
+	}
+
+
+	/**
+	 * Constructor (serial search for the first configuration, in the exhaustive search order,
+	 * whose min k reaches a target instead of the maximum one)
+	 * @param coverage The objects detected by each camera with each zoom (FOV) at the current step.
+	 * @param zoomOptions The zoom indexes (in ascending order) each camera may take.
+	 * @param target The required min k.
+	 */
+	public BranchAndBound(CoverageTable coverage, int[][] zoomOptions, int target) {
+		Search root = prepare(coverage, zoomOptions);
+		root.bestMinK = target-1;
+		firstOnly = true;
+		root.search(coverage.getCameraCount());
+		result = root;
+	}
+
+
+	/**
+	 * Builds the reach masks of the cameras and the root state of the search.
+	 * @param coverage The objects detected by each camera with each zoom (FOV) at the current step.
+	 * @param zoomOptions The zoom indexes (in ascending order) each camera may take.
+	 * @return The state of the search before any camera is assigned.
+	 */
+	private Search prepare(CoverageTable coverage, int[][] zoomOptions) {
+		this.coverage = coverage;
+		this.zoomOptions = zoomOptions;
+		int camCount = coverage.getCameraCount();
+		int objCount = coverage.getObjectCount();
+
+		this.reachMasks = new long[camCount][];
+		int[] reachable = new int[objCount]; // number of cameras that can detect each object
+		for (int n=0 ; n<camCount ; n++) {
+			reachMasks[n] = coverage.getReachMask(n, zoomOptions[n]);
+			for (int m=0 ; m<objCount ; m++)
+				reachable[m] += (int)((reachMasks[n][m >>> 6] >>> m) & 1L);
+		}
+
+		this.sharedMinK = new AtomicInteger(0);
+		return new Search(camCount, objCount, reachable);
+	}
+
+
+	/**
+	 * Returns a list of all zoom indexes for each camera.
+	 * @param coverage The coverage table of the step.
+	 * @return The zoom options of each camera.
+	 */
+	private static int[][] allZooms(CoverageTable coverage) {
+		int[][] options = new int[coverage.getCameraCount()][];
+		for (int n=0 ; n<options.length ; n++) {
+			options[n] = new int[coverage.getZoomCount()];
+			for (int z=0 ; z<options[n].length ; z++)
+				options[n][z] = z;
+		}
+		return options;
+	}
+
+
+	/**
+	 * The state of a (sub)search: the partial configuration, its object covers and the best
+	 * configuration found so far. Each task owns its own state. Both the min k of the assigned
+	 * cameras and the upper bound are kept up to date while cameras are assigned and
+	 * unassigned, so neither a leaf nor a bound check allocates or scans all objects.
+	 */
+	private class Search {
+		CoverCounter objCover; // number of assigned cameras that detect each object
+		CoverCounter objBound; // objCover plus the number of unassigned cameras that can detect each object
+		int[] zoomList;
+		int bestMinK;
+		int[] bestCamConfig;
+		boolean found; // set in firstOnly mode once a configuration beats the initial best
+		long nodesVisited;
+		long nodesPruned;
+
+		Search(int camCount, int objCount, int[] reachable) {
+			objCover = new CoverCounter(new int[objCount], camCount);
+			objBound = new CoverCounter(reachable, camCount);
+			zoomList = new int[camCount];
+			bestMinK = 0;
+			bestCamConfig = new int[camCount];
+		}
+
+		Search(Search parent) {
+			objCover = new CoverCounter(parent.objCover);
+			objBound = new CoverCounter(parent.objBound);
+			zoomList = parent.zoomList.clone();
+			bestMinK = parent.bestMinK;
+			bestCamConfig = parent.bestCamConfig.clone();
+		}
+
+
+		/**
+		 * Visits the camera configurations in the same order as the exhaustive recursion of
+		 * Optimal (the last camera is assigned first and zooms are tried in ascending order) and
+		 * skips every partial configuration whose upper bound can not beat the best min k found
+		 * so far. Since only a strictly greater min k replaces the best one, the selected
+		 * configuration is the same as the exhaustive search.
+		 * @param size The number of cameras that are not assigned yet.
+		 */
+		void search(int size) {
+			nodesVisited++;
+			if (size==0) {
+				int tableResult = objCover.getMin();
+				if (tableResult > bestMinK) {
+					bestMinK = tableResult;
+					System.arraycopy(zoomList, 0, bestCamConfig, 0, zoomList.length);
+					sharedMinK.accumulateAndGet(tableResult, Math::max);
+					found = firstOnly;
+				}
+			}
+			else if (isPruned()) {
+				nodesPruned++;
+			}
+			else {
+				int n = size-1;
+				for (int z : zoomOptions[n]) {
+					zoomList[n] = z;
+					assign(n, z);
+					search(n);
+					unassign(n, z);
+					if (found)
+						break;
+				}
+			}
+		}
+
+
+		/**
+		 * A partial configuration is pruned when its upper bound (every unassigned camera
+		 * detects all objects it can detect with any of its zoom options) can not beat this
+		 * search's own best, or is strictly worse than the best of any other task. Ties with
+		 * other tasks are still explored so that the earlier configuration wins, as in the
+		 * serial search.
+		 * @return True if no completion of the partial configuration can be selected.
+		 */
+		boolean isPruned() {
+			int bound = objBound.getMin();
+			return bound <= bestMinK || bound < sharedMinK.get();
+		}
+
+
+		/**
+		 * Assigns a zoom to a camera: the objects it detects are covered once more, and the
+		 * objects it could only detect with another zoom lose it from their bound.
+		 * @param n The index of the camera in the list of cameras
+		 * @param z The index of the zoom level in the list of zoom values
+		 */
+		void assign(int n, int z) {
+			objCover.add(coverage.getMask(n, z));
+			objBound.remove(reachMasks[n], coverage.getMask(n, z));
+		}
+
+
+		/**
+		 * Reverts assign(n, z) on backtrack.
+		 * @param n The index of the camera in the list of cameras
+		 * @param z The index of the zoom level in the list of zoom values
+		 */
+		void unassign(int n, int z) {
+			objCover.remove(coverage.getMask(n, z));
+			objBound.add(reachMasks[n], coverage.getMask(n, z));
+		}
+
+
+		/**
+		 * Merges the result of a subtree that comes later in the search order. As in the serial
+		 * search, the later result only wins if its min k is strictly greater.
+		 * @param later The finished search of a later subtree.
+		 */
+		void merge(Search later) {
+			if (later.bestMinK > bestMinK) {
+				bestMinK = later.bestMinK;
+				System.arraycopy(later.bestCamConfig, 0, bestCamConfig, 0, bestCamConfig.length);
+			}
+			nodesVisited += later.nodesVisited;
+			nodesPruned += later.nodesPruned;
+		}
+	}
+
+
+	/**
+	 * Splits the zooms of the leading cameras into parallel subtrees and merges their results
+	 * in the serial search order.
+	 */
+	private class SubtreeTask extends RecursiveTask<Search> {
+		private static final long serialVersionUID = 1L;
+		private Search state;
+		private int size;
+
+		SubtreeTask(Search state, int size) {
+			this.state = state;
+			this.size = size;
+		}
+
+		@Override
+		protected Search compute() {
+			if (size==0 || zoomOptions.length-size >= splitDepth) {
+				state.search(size);
+				return state;
+			}
+
+			state.nodesVisited++;
+			if (state.isPruned()) {
+				state.nodesPruned++;
+				return state;
+			}
+
+			int n = size-1;
+			ArrayList<SubtreeTask> tasks = new ArrayList<SubtreeTask>();
+			for (int z : zoomOptions[n]) {
+				Search child = new Search(state);
+				child.zoomList[n] = z;
+				child.assign(n, z);
+				tasks.add(new SubtreeTask(child, n));
+			}
+			invokeAll(tasks);
+
+			for (SubtreeTask task : tasks)
+				state.merge(task.join());
+			return state;
+		}
+	}
+
+
+	/**
+	 * @return The maximum min k-cover of the step (in target mode: the min k of the configuration
+	 * found, or target-1 if there is none).
+	 */
+	public int getBestMinK() {
+		return result.bestMinK;
+	}
+
+
+	/**
+	 * @return The first camera configuration (in the exhaustive search order) that reaches the maximum
+	 * (or target) min k.
+	 */
+	public int[] getBestCamConfig() {
+		return result.bestCamConfig;
+	}
+
+
+	/**
+	 * @return The number of search tree nodes (partial and full configurations) visited.
+	 */
+	public long getNodesVisited() {
+		return result.nodesVisited;
+	}
+
+
+	/**
+	 * @return The number of partial configurations cut off by the bound.
+	 */
+	public long getNodesPruned() {
+		return result.nodesPruned;
+	}
+}
@@ -0,0 +1,278 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class CameraComponents {
+	private CoverageTable coverage;
+	private int[][] zoomOptions;
+	private ArrayList<int[]> componentCameras = new ArrayList<int[]>(); // camera indexes of each component
+	private ArrayList<int[]> componentObjects = new ArrayList<int[]>(); // object indexes of each component
+	private boolean unreachableObject; // true if some object can not be detected by any camera
+	private int bestMinK;
+	private int[] bestCamConfig;
+	private long nodesVisited;
+	private long nodesPruned;
+
+
+	/**
+	 * Constructor
+	 * Splits a step into the connected components of its camera-object interaction graph, where
+	 * a camera and an object are connected if the camera can detect the object with any of its
+	 * zoom options. Since no camera of one component detects an object of another, the min k
+	 * of a configuration is the minimum of the min k of its components, and each component is
+	 * searched on its own. The combined configuration is the one the search over all cameras
+	 * would select.
+	 * @param coverage The objects detected by each camera with each zoom (FOV) at the current step.
+	 * @param zoomOptions The zoom indexes (in ascending order) each camera may take.
+	 * @param pool The pool that runs the searches in parallel, or null for serial searches.
+	 */
+	public CameraComponents(CoverageTable coverage, int[][] zoomOptions, ForkJoinPool pool) {
+		this(coverage, zoomOptions, pool, null);
+	}
+
+
+	/**
+	 * Constructor (warm started searches)
+	 * @param coverage The objects detected by each camera with each zoom (FOV) at the current step.
+	 * @param zoomOptions The zoom indexes (in ascending order) each camera may take.
+	 * @param pool The pool that runs the searches in parallel, or null for serial searches.
+	 * @param seedCamConfig A configuration (e.g. the one of the previous step) whose min k in
+	 * each component seeds the bound of that component's search, or null.
+	 */
+	public CameraComponents(CoverageTable coverage, int[][] zoomOptions, ForkJoinPool pool, int[] seedCamConfig) {
+		this.coverage = coverage;
+		this.zoomOptions = zoomOptions;
+		findComponents();
+		solve(pool, seedCamConfig);
+	}
+
+
+	/**
+	 * Finds the connected components with a union-find over the cameras: all cameras that can
+	 * detect the same object are joined.
+	 */
+	private void findComponents() {
+		int camCount = coverage.getCameraCount();
+		int objCount = coverage.getObjectCount();
+		long[][] reachMasks = new long[camCount][];
+		for (int n=0 ; n<camCount ; n++)
+			reachMasks[n] = coverage.getReachMask(n, zoomOptions[n]);
+
+		int[] parent = new int[camCount];
+		for (int n=0 ; n<camCount ; n++)
+			parent[n] = n;
+		int[] objCamera = new int[objCount]; // a camera that can detect each object (-1 for none)
+		for (int m=0 ; m<objCount ; m++) {
+			objCamera[m] = -1;
+			for (int n=0 ; n<camCount ; n++) {
+				if (((reachMasks[n][m >>> 6] >>> m) & 1L) != 0) {
+					if (objCamera[m] == -1)
+						objCamera[m] = n;
+					else
+						parent[find(parent, n)] = find(parent, objCamera[m]);
+				}
+			}
+			if (objCamera[m] == -1)
+				unreachableObject = true;
+		}
+
+		int[] componentIndex = new int[camCount];
+		int[] camCounts = new int[camCount];
+		int[] objCounts = new int[camCount];
+		for (int n=0 ; n<camCount ; n++)
+			componentIndex[n] = -1;
+		for (int m=0 ; m<objCount ; m++)
+			if (objCamera[m] != -1)
+				objCounts[find(parent, objCamera[m])]++;
+		for (int n=0 ; n<camCount ; n++)
+			camCounts[find(parent, n)]++;
+
+		for (int n=0 ; n<camCount ; n++) {
+			int root = find(parent, n);
+			if (objCounts[root] > 0 && componentIndex[root] == -1) {
+				componentIndex[root] = componentCameras.size();
+				componentCameras.add(new int[camCounts[root]]);
+				componentObjects.add(new int[objCounts[root]]);
+				camCounts[root] = 0;
+				objCounts[root] = 0;
+			}
+		}
+		for (int n=0 ; n<camCount ; n++) {
+			int root = find(parent, n);
+			if (componentIndex[root] != -1)
+				componentCameras.get(componentIndex[root])[camCounts[root]++] = n;
+		}
+		for (int m=0 ; m<objCount ; m++) {
+			if (objCamera[m] != -1) {
+				int root = find(parent, objCamera[m]);
+				componentObjects.get(componentIndex[root])[objCounts[root]++] = m;
+			}
+		}
+	}
+
+
+	/**
+	 * Finds the representative camera of a camera's set (with path halving).
+	 * @param parent The union-find parent of each camera.
+	 * @param n The index of the camera in the list of cameras
+	 * @return The index of the representative camera.
+	 */
+	private static int find(int[] parent, int n) {
+		while (parent[n] != n) {
+			parent[n] = parent[parent[n]];
+			n = parent[n];
+		}
+		return n;
+	}
+
+
+	/**
+	 * Searches each component for its maximum min k; the minimum over the components is the
+	 * min k of the step. Components that can do better than that are searched again for their
+	 * first configuration (in the search order) that reaches it, because that is the part of
+	 * the configuration the search over all cameras selects. Cameras that detect no object keep
+	 * their first zoom option.
+	 * @param pool The pool that runs the searches in parallel, or null for serial searches.
+	 * @param seedCamConfig A configuration whose min k seeds the searches, or null.
+	 */
+	private void solve(ForkJoinPool pool, int[] seedCamConfig) {
+		int camCount = coverage.getCameraCount();
+		bestCamConfig = new int[camCount];
+		if (unreachableObject) {
+			bestMinK = 0;
+			return;
+		}
+
+		int[] componentMinK = new int[componentCameras.size()];
+		int[][] componentConfig = new int[componentCameras.size()][];
+		CoverageTable[] tables = new CoverageTable[componentCameras.size()];
+		int[][][] options = new int[componentCameras.size()][][];
+		bestMinK = 10000;
+		for (int c=0 ; c<componentCameras.size() ; c++) {
+			tables[c] = getCoverage(c);
+			options[c] = getZoomOptions(c);
+			int seedMinK = (seedCamConfig == null) ? 0 : tables[c].getMinK(getCamConfig(c, seedCamConfig));
+			BranchAndBound bnb = new BranchAndBound(tables[c], options[c], pool, seedMinK);
+			componentMinK[c] = bnb.getBestMinK();
+			componentConfig[c] = bnb.getBestCamConfig();
+			addNodes(bnb);
+			if (componentMinK[c] < bestMinK)
+				bestMinK = componentMinK[c];
+		}
+		if (bestMinK == 0)
+			return; // as in the search over all cameras, no configuration is better than the initial one
+
+		for (int n=0 ; n<camCount ; n++)
+			bestCamConfig[n] = zoomOptions[n][0];
+		for (int c=0 ; c<componentCameras.size() ; c++) {
+			if (componentMinK[c] > bestMinK) {
+				BranchAndBound bnb = new BranchAndBound(tables[c], options[c], bestMinK);
+				componentConfig[c] = bnb.getBestCamConfig();
+				addNodes(bnb);
+			}
+			int[] cams = componentCameras.get(c);
+			for (int i=0 ; i<cams.length ; i++)
+				bestCamConfig[cams[i]] = componentConfig[c][i];
+		}
+	}
+
+
+	/**
+	 * Adds the search statistics of a component search to the totals.
+	 * @param bnb A finished search.
+	 */
+	private void addNodes(BranchAndBound bnb) {
+		nodesVisited += bnb.getNodesVisited();
+		nodesPruned += bnb.getNodesPruned();
+	}
+
+
+	/**
+	 * Returns the coverage table restricted to the cameras and objects of a component.
+	 * @param c The index of the component.
+	 * @return The coverage table of the component.
+	 */
+	private CoverageTable getCoverage(int c) {
+		int[] cams = componentCameras.get(c);
+		int[] objs = componentObjects.get(c);
+		CoverageTable table = new CoverageTable(cams.length, coverage.getZoomCount(), objs.length);
+		for (int i=0 ; i<cams.length ; i++)
+			for (int z=0 ; z<coverage.getZoomCount() ; z++)
+				for (int j=0 ; j<objs.length ; j++)
+					if (coverage.isDetectable(cams[i], z, objs[j]))
+						table.set(i, z, j);
+		return table;
+	}
+
+
+	/**
+	 * Returns the zoom options of the cameras of a component.
+	 * @param c The index of the component.
+	 * @return The zoom options of each camera of the component.
+	 */
+	private int[][] getZoomOptions(int c) {
+		int[] cams = componentCameras.get(c);
+		int[][] options = new int[cams.length][];
+		for (int i=0 ; i<cams.length ; i++)
+			options[i] = zoomOptions[cams[i]];
+		return options;
+	}
+
+
+	/**
+	 * Returns the part of a configuration that belongs to the cameras of a component.
+	 * @param c The index of the component.
+	 * @param camConfig The zoom index of each camera.
+	 * @return The zoom index of each camera of the component.
+	 */
+	private int[] getCamConfig(int c, int[] camConfig) {
+		int[] cams = componentCameras.get(c);
+		int[] config = new int[cams.length];
+		for (int i=0 ; i<cams.length ; i++)
+			config[i] = camConfig[cams[i]];
+		return config;
+	}
+
+
+	/**
+	 * @return The number of connected components (cameras that detect no object are not counted).
+	 */
+	public int size() {
+		return componentCameras.size();
+	}
+
+
+	/**
+	 * @return The maximum min k-cover of the step.
+	 */
+	public int getBestMinK() {
+		return bestMinK;
+	}
+
+
+	/**
+	 * @return The camera configuration the search over all cameras would select.
+	 */
+	public int[] getBestCamConfig() {
+		return bestCamConfig;
+	}
+
+
+	/**
+	 * @return The number of search tree nodes visited by all component searches.
+	 */
+	public long getNodesVisited() {
+		return nodesVisited;
+	}
+
+
+	/**
+	 * @return The number of partial configurations cut off by all component searches.
+	 */
+	public long getNodesPruned() {
+		return nodesPruned;
+	}
+}
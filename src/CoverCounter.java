@@ -0,0 +1,152 @@
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class CoverCounter {
+	private int[] counts; // a counter for each object (e.g. the number of cameras that detect it)
+	private int[] histogram; // number of objects for each counter value
+	private int min; // the minimum of all counters (10000 if there are no objects)
+
+
+	/**
+	 * Constructor
+	 * @param counts The initial counter of each object.
+	 * @param maxCount The largest value any counter can reach.
+	 */
+	public CoverCounter(int[] counts, int maxCount) {
+		this.counts = counts.clone();
+		this.histogram = new int[maxCount+2];
+		this.min = 10000;
+		for (int c : counts) {
+			histogram[c]++;
+			if (c < min)
+				min = c;
+		}
+	}
+
+
+	/**
+	 * Constructor (a copy of another counter)
+	 * @param other The counter to copy.
+	 */
+	public CoverCounter(CoverCounter other) {
+		this.counts = other.counts.clone();
+		this.histogram = other.histogram.clone();
+		this.min = other.min;
+	}
+
+
+	/**
+	 * Increments the counters of the objects in a bitmask.
+	 * @param mask The bitmask of objects.
+	 */
+	public void add(long[] mask) {
+		for (int w=0 ; w<mask.length ; w++) {
+			long bits = mask[w];
+			while (bits != 0) {
+				increment((w << 6) + Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+			}
+		}
+	}
+
+
+	/**
+	 * Decrements the counters of the objects in a bitmask.
+	 * @param mask The bitmask of objects.
+	 */
+	public void remove(long[] mask) {
+		for (int w=0 ; w<mask.length ; w++) {
+			long bits = mask[w];
+			while (bits != 0) {
+				decrement((w << 6) + Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+			}
+		}
+	}
+
+
+	/**
+	 * Increments the counters of the objects that are in a bitmask but not in another one.
+	 * @param mask The bitmask of objects.
+	 * @param exclude The bitmask of objects to skip.
+	 */
+	public void add(long[] mask, long[] exclude) {
+		for (int w=0 ; w<mask.length ; w++) {
+			long bits = mask[w] & ~exclude[w];
+			while (bits != 0) {
+				increment((w << 6) + Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+			}
+		}
+	}
+
+
+	/**
+	 * Decrements the counters of the objects that are in a bitmask but not in another one.
+	 * @param mask The bitmask of objects.
+	 * @param exclude The bitmask of objects to skip.
+	 */
+	public void remove(long[] mask, long[] exclude) {
+		for (int w=0 ; w<mask.length ; w++) {
+			long bits = mask[w] & ~exclude[w];
+			while (bits != 0) {
+				decrement((w << 6) + Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+			}
+		}
+	}
+
+
+	/**
+	 * Increments the counter of an object. The minimum can only move up by one, and only if
+	 * this object was the last one holding it.
+	 * @param m The index of the object in the list of objects
+	 */
+	private void increment(int m) {
+		int c = counts[m]++;
+		histogram[c]--;
+		histogram[c+1]++;
+		if (c == min && histogram[c] == 0)
+			min++;
+	}
+
+
+	/**
+	 * Decrements the counter of an object.
+	 * @param m The index of the object in the list of objects
+	 */
+	private void decrement(int m) {
+		int c = --counts[m];
+		histogram[c+1]--;
+		histogram[c]++;
+		if (c < min)
+			min = c;
+	}
+
+
+	/**
+	 * @param m The index of the object in the list of objects
+	 * @return The counter of the object.
+	 */
+	public int get(int m) {
+		return counts[m];
+	}
+
+
+	/**
+	 * @return The number of objects.
+	 */
+	public int size() {
+		return counts.length;
+	}
+
+
+	/**
+	 * @return The minimum counter over all objects (10000 if there are no objects).
+	 */
+	public int getMin() {
+		return min;
+	}
+}
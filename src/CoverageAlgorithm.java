@@ -0,0 +1,71 @@
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public interface CoverageAlgorithm {
+
+	/**
+	 * @return The name of the algorithm, which names its result file ('*-name.csv') and
+	 * selects it in the AlgorithmRegistry.
+	 */
+	String getName();
+
+
+	/**
+	 * @return The title of the column of the algorithm in the result files.
+	 */
+	String getLabel();
+
+
+	/**
+	 * @return The name of the algorithm in the ratios printed at the end of a run (the title
+	 * of its column by default).
+	 */
+	default String getRatioLabel() {
+		return getLabel();
+	}
+
+
+	/**
+	 * Prepares the algorithm for a run (e.g. trains it). Called once before step 0.
+	 * @param simulation The simulation that runs the algorithm.
+	 * @param settings The scenario of this run (its objects are moved by the simulation).
+	 * @param geometry The detectability of the objects of this run at the current step.
+	 */
+	void init(Simulation simulation, Settings settings, StepGeometry geometry);
+
+
+	/**
+	 * Selects the zoom of every camera for a step.
+	 * @param step The current time step.
+	 * @return The zoom index of each camera (read by the simulation before observe).
+	 */
+	int[] decide(int step);
+
+
+	/**
+	 * Receives the outcome of the configuration the algorithm selected for a step, before the
+	 * objects move.
+	 * @param step The current time step.
+	 * @param camConfig The zoom index of each camera.
+	 * @param detectedObj The number of objects each camera detects with its zoom.
+	 */
+	void observe(int step, int[] camConfig, int[] detectedObj);
+
+
+	/**
+	 * Called once after the last step (e.g. to print statistics of the run).
+	 */
+	default void finish() {
+	}
+
+
+	/**
+	 * @return The names of the algorithms that have to run before this one (it reads their
+	 * step 0 configurations from the simulation). In a lockstep run they come earlier in
+	 * each step.
+	 */
+	default String[] getDependencies() {
+		return new String[0];
+	}
+}
@@ -0,0 +1,154 @@
+import java.util.Arrays;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class CoverageTable {
+	private long[][][] masks; // [camera][zoom][word] bitmask of the objects detected by the camera with that zoom
+	private int objCount;
+	private int words;
+
+
+	/**
+	 * Constructor (an empty table where no camera detects any object)
+	 * @param camCount The number of cameras.
+	 * @param zoomCount The number of zoom levels.
+	 * @param objCount The number of objects.
+	 */
+	public CoverageTable(int camCount, int zoomCount, int objCount) {
+		this.objCount = objCount;
+		this.words = (objCount + 63) >>> 6;
+		this.masks = new long[camCount][zoomCount][words];
+	}
+
+
+	/**
+	 * Marks an object as detectable by a camera with a specified zoom.
+	 * @param n The index of the camera in the list of cameras
+	 * @param z The index of the zoom level in the list of zoom values
+	 * @param m The index of the object in the list of objects
+	 */
+	public void set(int n, int z, int m) {
+		masks[n][z][m >>> 6] |= 1L << m;
+	}
+
+
+	/**
+	 * @param n The index of the camera in the list of cameras
+	 * @param z The index of the zoom level in the list of zoom values
+	 * @param m The index of the object in the list of objects
+	 * @return True if the object is detectable by the camera with that zoom.
+	 */
+	public boolean isDetectable(int n, int z, int m) {
+		return (masks[n][z][m >>> 6] & (1L << m)) != 0;
+	}
+
+
+	/**
+	 * Gives read access to the bitmask of the objects a camera detects with a zoom. Object m
+	 * is bit (m % 64) of word (m / 64).
+	 * @param n The index of the camera in the list of cameras
+	 * @param z The index of the zoom level in the list of zoom values
+	 * @return The bitmask of the detected objects.
+	 */
+	public long[] getMask(int n, int z) {
+		return masks[n][z];
+	}
+
+
+	/**
+	 * Returns the objects a camera can detect with at least one of the given zooms.
+	 * @param n The index of the camera in the list of cameras
+	 * @param zoomOptions A list of zoom indexes.
+	 * @return The union (OR) of the bitmasks of the given zooms.
+	 */
+	public long[] getReachMask(int n, int[] zoomOptions) {
+		long[] reach = new long[words];
+		for (int z : zoomOptions)
+			for (int w=0 ; w<words ; w++)
+				reach[w] |= masks[n][z][w];
+		return reach;
+	}
+
+
+	/**
+	 * @param n The index of the camera in the list of cameras
+	 * @param z The index of the zoom level in the list of zoom values
+	 * @return The number of objects the camera detects with that zoom (popcount of its mask).
+	 */
+	public int countDetected(int n, int z) {
+		int count = 0;
+		for (long word : masks[n][z])
+			count += Long.bitCount(word);
+		return count;
+	}
+
+
+	/**
+	 * Returns the min k-cover of a camera configuration.
+	 * @param camConfig The zoom index of each camera.
+	 * @return The minimum number of cameras that detect an object (10000 if there are no objects).
+	 */
+	public int getMinK(int[] camConfig) {
+		int[] objCover = new int[objCount];
+		for (int n=0 ; n<masks.length ; n++) {
+			long[] mask = masks[n][camConfig[n]];
+			for (int w=0 ; w<words ; w++) {
+				long bits = mask[w];
+				while (bits != 0) {
+					objCover[(w << 6) + Long.numberOfTrailingZeros(bits)]++;
+					bits &= bits - 1;
+				}
+			}
+		}
+		int min = 10000;
+		for (int k : objCover)
+			if (k < min)
+				min = k;
+		return min;
+	}
+
+
+	/**
+	 * Two tables are equal when every camera detects the same objects with every zoom, which
+	 * makes a table usable as the signature of a step.
+	 */
+	@Override
+	public boolean equals(java.lang.Object other) {
+		if (!(other instanceof CoverageTable))
+			return false;
+		CoverageTable table = (CoverageTable) other;
+		return objCount == table.objCount && Arrays.deepEquals(masks, table.masks);
+	}
+
+
+	@Override
+	public int hashCode() {
+		return Arrays.deepHashCode(masks) * 31 + objCount;
+	}
+
+
+	/**
+	 * @return The number of cameras in the table.
+	 */
+	public int getCameraCount() {
+		return masks.length;
+	}
+
+
+	/**
+	 * @return The number of zoom levels in the table.
+	 */
+	public int getZoomCount() {
+		return (masks.length==0) ? 0 : masks[0].length;
+	}
+
+
+	/**
+	 * @return The number of objects in the table.
+	 */
+	public int getObjectCount() {
+		return objCount;
+	}
+}
@@ -0,0 +1,117 @@
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class DenseQTable implements QTable {
+	private final int objCount;
+	private final int zoomCount;
+	private final int stateCount; // z*(o+1) states: a zoom and a number of detected objects
+	private final double[][] q; // [camera][state*stateCount + next state] one contiguous matrix per camera
+
+
+	/**
+	 * Constructor
+	 * Q matrices that store every value: each camera's matrix is a single primitive array
+	 * (row by row, all values 0.0 at first), so an update does not box values or allocate.
+	 * The size grows with the square of the number of objects.
+	 * @param camCount The number of cameras.
+	 * @param zoomCount The number of zoom levels.
+	 * @param objCount The number of objects.
+	 */
+	public DenseQTable(int camCount, int zoomCount, int objCount) {
+		this.objCount = objCount;
+		this.zoomCount = zoomCount;
+		this.stateCount = zoomCount * (objCount+1);
+		this.q = new double[camCount][stateCount * stateCount];
+	}
+
+
+	@Override
+	public int getState(int zoom, int detectedObj) {
+		return zoom*(objCount+1) + detectedObj;
+	}
+
+
+	@Override
+	public int getStateCount() {
+		return stateCount;
+	}
+
+
+	@Override
+	public double get(int n, int state, int next) {
+		return q[n][state*stateCount + next];
+	}
+
+
+	/**
+	 * Scans the row of the state.
+	 */
+	@Override
+	public double getMax(int n, int state) {
+		double[] matrix = q[n];
+		int offset = state*stateCount;
+		double max = matrix[offset];
+		for (int i=1 ; i<stateCount ; i++)
+			if (matrix[offset+i] > max)
+				max = matrix[offset+i];
+		return max;
+	}
+
+
+	@Override
+	public void update(int n, int state, int next, double reward, double alpha, double gamma) {
+		int index = state*stateCount + next;
+		double value = q[n][index];
+		double maxQ = getMax(n, next);
+		q[n][index] = value + alpha * (reward + gamma * maxQ - value);
+	}
+
+
+	/**
+	 * The values that are not 0.0 (bit for bit, so -0.0 is kept).
+	 */
+	@Override
+	public int[] getStored(int n, int state) {
+		double[] matrix = q[n];
+		int offset = state*stateCount;
+		int count = 0;
+		for (int i=0 ; i<stateCount ; i++)
+			if (Double.doubleToRawLongBits(matrix[offset+i]) != 0)
+				count++;
+		int[] stored = new int[count];
+		count = 0;
+		for (int i=0 ; i<stateCount ; i++)
+			if (Double.doubleToRawLongBits(matrix[offset+i]) != 0)
+				stored[count++] = i;
+		return stored;
+	}
+
+
+	@Override
+	public void set(int n, int state, int next, double value) {
+		q[n][state*stateCount + next] = value;
+	}
+
+
+	/**
+	 * Adds up the values of each row in the order of the next states.
+	 */
+	@Override
+	public double[][] getZoomValues(int n) {
+		double[][] QF = new double[stateCount][zoomCount];
+		double[] matrix = q[n];
+		for (int z1=0 ; z1<zoomCount ; z1++) {
+			for (int m1=0 ; m1<objCount ; m1++) {
+				int offset = getState(z1, m1) * stateCount;
+				for (int z2=0 ; z2<zoomCount ; z2++) {
+					double sum = 0.0;
+					for (int m2=0 ; m2<objCount ; m2++)
+						sum += matrix[offset + getState(z2, m2)];
+					QF[getState(z1, m1)][z2] = sum;
+				}
+			}
+		}
+		return QF;
+	}
+}
@@ -0,0 +1,71 @@
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class DetectionModel {
+	private double b; // the confidence constant of the camera
+	private double gain; // scale of the confidence curve
+	private double offset; // subtracted from the confidence
+
+
+	/**
+	 * Constructor (the confidence curve of the simulator: 0.95 * (15 / (zoom * distance)) - 0.15)
+	 */
+	public DetectionModel() {
+		this(15, 0.95, 0.15);
+	}
+
+
+	/**
+	 * Constructor
+	 * The confidence of detecting an object at a distance with a zoom (FOV) is
+	 * gain * (b / (zoom * distance)) - offset, and an object is detectable if it is within the
+	 * zoom range and its confidence is at least the threshold.
+	 * @param b The confidence constant of the camera.
+	 * @param gain The scale of the confidence curve.
+	 * @param offset The value subtracted from the confidence.
+	 */
+	public DetectionModel(double b, double gain, double offset) {
+		this.b = b;
+		this.gain = gain;
+		this.offset = offset;
+	}
+
+
+	/**
+	 * Returns the confidence of detecting an object.
+	 * @param zoom The range of the zoom level (FOV).
+	 * @param distance The distance between the camera and the object.
+	 * @return The detection confidence.
+	 */
+	public double getConfidence(double zoom, double distance) {
+		return gain * (b / (zoom * distance)) - offset;
+	}
+
+
+	/**
+	 * Returns the largest distance at which an object is detectable with a zoom. Since the
+	 * confidence falls with the distance, the confidence test is a distance limit for a fixed
+	 * zoom and threshold; a model with another confidence curve overrides both methods.
+	 * @param zoom The range of the zoom level (FOV).
+	 * @param threshold The selected confidence threshold.
+	 * @return The detection radius (at most the zoom range).
+	 */
+	public double getRadius(double zoom, double threshold) {
+		if (threshold + offset <= 0)
+			return zoom; // the confidence never drops below the threshold
+		return Math.min(zoom, gain * b / (zoom * (threshold + offset)));
+	}
+
+
+	/**
+	 * @param zoom The range of the zoom level (FOV).
+	 * @param threshold The selected confidence threshold.
+	 * @return The square of the detection radius, compared with squared distances.
+	 */
+	public double getSquaredRadius(double zoom, double threshold) {
+		double r = getRadius(zoom, threshold);
+		return r * r;
+	}
+}
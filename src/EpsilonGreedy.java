@@ -1,77 +1,85 @@
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-
 /**
 *
 * @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
 */
 
-public class EpsilonGreedy {
+public class EpsilonGreedy implements CoverageAlgorithm {
 	
 	private final Double EPSILON = 0.1;
-	private ArrayList<Camera> cameras;
-	private ArrayList<Object> objects;
 	private Double[] zooms;
-	private int steps;
-	private Double threshold;
-    private String outputPath;
     private RandomNumberGenerator rand;
+    private int[][][] stats; // [camera][zoom] steps with the zoom and objects detected with it
+    private int[] camConfig;
+
+
+	/**
+	 * @return "egreedy"
+	 */
+	@Override
+	public String getName() {
+		return "egreedy";
+	}
+
 
-    
 	/**
-	 * Constructor
-	 * @param settings An instance of Settings class that contains all scenario settings.
-	 * @param steps Number of time steps the simulation will run for.
-	 * @param threshold The selected confidence threshold to determine whether an object
-	 * is detectable or not.
-	 * @param outputPath The path to output folder.
+	 * @return "E-Greedy"
 	 */
-    public EpsilonGreedy (Settings settings, int steps, Double threshold, String outputPath) {
-		System.out.print("Running \u03B5-greedy algorithm .... ");
-		this.cameras = settings.cameras;
-		this.objects = settings.objects;
-		this.zooms = this.cameras.get(0).zooms;
-		this.steps = steps;
-		this.threshold = threshold;
-		this.outputPath = outputPath;
+	@Override
+	public String getLabel() {
+		return "E-Greedy";
+	}
+
+
+	/**
+	 * @return "\u03B5greedy"
+	 */
+	@Override
+	public String getRatioLabel() {
+		return "\u03B5greedy";
+	}
+
+
+	/**
+	 * @param simulation The simulation that runs the algorithm.
+	 * @param settings The scenario of this run.
+	 * @param geometry The detectability of the objects of this run at the current step.
+	 */
+	@Override
+	public void init(Simulation simulation, Settings settings, StepGeometry geometry) {
+		this.zooms = settings.cameras.get(0).zooms;
     	this.rand = new RandomNumberGenerator(9011);
-		run();
-		System.out.println("COMPLETE\n");
+    	this.stats = new int[settings.cameras.size()][zooms.length][2];
+    	this.camConfig = new int[settings.cameras.size()];
 	}
 
-    
-    /**
-     * Runs the epsilon-greedy simulation
-     */
-    public void run(){
-    	int[][][] stats = new int[cameras.size()][zooms.length][2];
-    	int[] minKCover = new int[steps];
-    	
-    	for (int step=0 ; step<steps ; step++) {
-        	int[] objCover = new int[objects.size()];
 
-        	for (int n=0 ; n<cameras.size() ; n++) {
-	    		int z = getZoomIndex(step, stats[n]);
-				int detectedObj = 0;
-				for (int m=0 ; m<objects.size() ; m++) {
-					if (isDetectable(m, n, z)) {
-						detectedObj++;
-						objCover[m]++;
-					}
-				}
-				stats[n][z][0]++;
-				stats[n][z][1] += detectedObj;
-	    	}
-	    	
-        	minKCover[step] = minimum(objCover);
-//        	System.out.println("in step "+step+" objects are "+minKCover[step]+"-covered");        	
-        	updateObjects();
+	/**
+	 * Selects the zoom of each camera with the best average detections so far (a random other
+	 * zoom with probability epsilon).
+	 * @param step The current time step.
+	 * @return The zoom index of each camera.
+	 */
+	@Override
+	public int[] decide(int step) {
+    	for (int n=0 ; n<camConfig.length ; n++)
+    		camConfig[n] = getZoomIndex(step, stats[n]);
+		return camConfig;
+	}
+
+
+	/**
+	 * Adds the detections of each camera to the statistics of its zoom.
+	 * @param step The current time step.
+	 * @param camConfig The zoom index of each camera.
+	 * @param detectedObj The number of objects each camera detects with its zoom.
+	 */
+	@Override
+	public void observe(int step, int[] camConfig, int[] detectedObj) {
+    	for (int n=0 ; n<camConfig.length ; n++) {
+			stats[n][camConfig[n]][0]++;
+			stats[n][camConfig[n]][1] += detectedObj[n];
     	}
-    	
-    	exportResult(minKCover);
-    }
+	}
 
     
     /**
@@ -131,70 +139,4 @@ public class EpsilonGreedy {
 		}
 		return index;
 	}
-
-	
-	/**
-	 * Checked whether an object is detectable by a camera with a specified zoom (FOV).
-	 * @param m The index of the object in the list of objects
-	 * @param n The index of the camera in the list of cameras
-	 * @param z The index of the zoom level in the list of zoom values
-	 * @return True if the object is within FOV (zoom range) AND the camera can see it 
-	 * with a confidence above threshold. False otherwise.
-	 */
-	private boolean isDetectable(int m, int n, int z) {
-		Double distance = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).x), 2) + Math.pow((cameras.get(n).y-objects.get(m).y), 2));
-		if (distance > cameras.get(n).zooms[z])
-			return false;
-		else {
-			double b = 15;
-			Double conf = 0.95 * (b / (cameras.get(n).zooms[z] * distance)) - 0.15;
-			return (conf >= threshold);
-		}
-	}
-
-	
-	/**
-	 * Updates all objects one time step.
-	 */
-	private void updateObjects() {
-		
-		for (Object obj : objects)
-			obj.update();
-	}
-
-	/**
-	 * Writes the result to '*-egreedy.csv' file.
-	 * @param minKCover The array of minimum k-cover values
-	 */
-	private void exportResult(int[] minKCover) {
-        FileWriter outFile;
-		try {
-			outFile = new FileWriter(outputPath+"-egreedy.csv");
-	        PrintWriter out = new PrintWriter(outFile);
-	        
-	        out.println("E-Greedy");
-	        for (int k : minKCover)
-	        	out.println(k);        
-	        out.close();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-	}
-
-
-	/**
-	 * Returns the minimum value of a list of integers < 10000.
-	 * @param list The list of integer
-	 * @return The minimum integer value in the list
-	 */
-	private static int minimum(int[] list) {
-		int min = 10000;
-		for (int i : list){
-			if (i < min)
-				min = i;
-		}
-		return min;
-	}
-
-    
 }
@@ -13,9 +13,11 @@ public class EpsilonGreedyActual {
 	private final Double EPSILON = 0.1;
 	private ArrayList<Camera> cameras;
 	private ArrayList<Object> objects;
+	private ObjectPositions store; // primitive state of the objects
 	private Double[] zooms;
 	private int steps;
 	private Double threshold;
+	private StepGeometry geometry; // distances and detectability of the current step
     private String outputPath;
     private RandomNumberGenerator rand;
 
@@ -32,9 +34,11 @@ public class EpsilonGreedyActual {
 		System.out.print("Running \u03B5-greedy-actual algorithm .... ");
 		this.cameras = settings.cameras;
 		this.objects = settings.objects;
+		this.store = settings.store;
 		this.zooms = this.cameras.get(0).zooms;
 		this.steps = steps;
 		this.threshold = threshold;
+		this.geometry = new StepGeometry(cameras, objects, threshold);
 		this.outputPath = outputPath;
     	this.rand = new RandomNumberGenerator(9011);
 		run();
@@ -63,8 +67,9 @@ public class EpsilonGreedyActual {
 	    			nextZ = (z > lastZ[n]) ? lastZ[n]+1 : lastZ[n]-1; 
 	    		
 //				int detectedObj = 0;
+				boolean[] detected = geometry.getDetectable(n, nextZ);
 				for (int m=0 ; m<objects.size() ; m++) {
-					if (isDetectable(m, n, nextZ)) {
+					if (detected[m]) {
 //						detectedObj++;
 						objCover[m]++;
 					}
@@ -135,33 +140,13 @@ public class EpsilonGreedyActual {
 	}
 
 	
-	/**
-	 * Checked whether an object is detectable by a camera with a specified zoom (FOV).
-	 * @param m The index of the object in the list of objects
-	 * @param n The index of the camera in the list of cameras
-	 * @param z The index of the zoom level in the list of zoom values
-	 * @return True if the object is within FOV (zoom range) AND the camera can see it 
-	 * with a confidence above threshold. False otherwise.
-	 */
-	private boolean isDetectable(int m, int n, int z) {
-		Double distance = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).x), 2) + Math.pow((cameras.get(n).y-objects.get(m).y), 2));
-		if (distance > cameras.get(n).zooms[z])
-			return false;
-		else {
-			double b = 15;
-			Double conf = 0.95 * (b / (cameras.get(n).zooms[z] * distance)) - 0.15;
-			return (conf >= threshold);
-		}
-	}
-
-	
 	/**
 	 * Updates all objects one time step.
 	 */
 	private void updateObjects() {
 		
-		for (Object obj : objects)
-			obj.update();
+		store.updateAll();
+		geometry.update();
 	}
 
 	/**
@@ -1,84 +1,94 @@
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-
 /**
 *
 * @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
 */
 
-public class EpsilonGreedyActualDO {
+public class EpsilonGreedyActualDO implements CoverageAlgorithm {
 	
 	private final Double EPSILON = 0.1;
-	private ArrayList<Camera> cameras;
-	private ArrayList<Object> objects;
 	private Double[] zooms;
-	private int steps;
-	private Double threshold;
-    private String outputPath;
     private RandomNumberGenerator rand;
+    private int[][][] stats; // [camera][zoom] steps with the zoom and objects detected with it
+    private int[] intended; // the zoom index each camera intends to take in the current step
+    private int[] camConfig; // the zoom index each camera takes (at most one level from its last zoom)
+
+
+	/**
+	 * @return "egreedy-act-do"
+	 */
+	@Override
+	public String getName() {
+		return "egreedy-act-do";
+	}
+
+
+	/**
+	 * @return "E-Greedy-Act-DO"
+	 */
+	@Override
+	public String getLabel() {
+		return "E-Greedy-Act-DO";
+	}
+
+
+	/**
+	 * @return "\u03B5greedyActualDO"
+	 */
+	@Override
+	public String getRatioLabel() {
+		return "\u03B5greedyActualDO";
+	}
+
 
-    
 	/**
-	 * Constructor
-	 * @param settings An instance of Settings class that contains all scenario settings.
-	 * @param steps Number of time steps the simulation will run for.
-	 * @param threshold The selected confidence threshold to determine whether an object
-	 * is detectable or not.
-	 * @param outputPath The path to output folder.
+	 * @param simulation The simulation that runs the algorithm.
+	 * @param settings The scenario of this run.
+	 * @param geometry The detectability of the objects of this run at the current step.
 	 */
-    public EpsilonGreedyActualDO (Settings settings, int steps, Double threshold, String outputPath) {
-		System.out.print("Running \u03B5-greedy-actual-do algorithm .... ");
-		this.cameras = settings.cameras;
-		this.objects = settings.objects;
-		this.zooms = this.cameras.get(0).zooms;
-		this.steps = steps;
-		this.threshold = threshold;
-		this.outputPath = outputPath;
+	@Override
+	public void init(Simulation simulation, Settings settings, StepGeometry geometry) {
+		this.zooms = settings.cameras.get(0).zooms;
     	this.rand = new RandomNumberGenerator(9011);
-		run();
-		System.out.println("COMPLETE\n");
+    	this.stats = new int[settings.cameras.size()][zooms.length][2];
+    	this.intended = new int[settings.cameras.size()];
+    	this.camConfig = new int[settings.cameras.size()];
 	}
 
-    
-    /**
-     * Runs the epsilon-greedy-actual simulation
-     */
-    public void run(){
-    	int[][][] stats = new int[cameras.size()][zooms.length][2];
-    	int[] minKCover = new int[steps];
-    	int[] lastZ = new int[cameras.size()];
-    	
-    	for (int step=0 ; step<steps ; step++) {
-        	int[] objCover = new int[objects.size()];
 
-        	for (int n=0 ; n<cameras.size() ; n++) {
-	    		int z = getZoomIndex(step, stats[n]);
-	    		int nextZ;
-	    		if (step == 0 || Math.abs(z-lastZ[n]) <= 1)
-	    			nextZ = z;
-	    		else
-	    			nextZ = (z > lastZ[n]) ? lastZ[n]+1 : lastZ[n]-1; 
-	    		
-				int detectedObj = 0;
-				for (int m=0 ; m<objects.size() ; m++) {
-					if (isDetectable(m, n, nextZ)) {
-						detectedObj++;
-						objCover[m]++;
-					}
-				}
-				lastZ[n] = nextZ;
-				stats[n][nextZ][0]++; // change 'nextZ' into 'z' to award the intended zoom
-				stats[n][nextZ][1] += detectedObj; // change 'nextZ' into 'z' to award the intended zoom
-	    	}
-        	
-        	minKCover[step] = minimum(objCover);
-        	updateObjects();
+	/**
+	 * Selects the intended zoom of each camera as epsilon-greedy does and moves the camera
+	 * one zoom level towards it (or to it, in step 0 or if it is at most one level away).
+	 * @param step The current time step.
+	 * @return The zoom index of each camera.
+	 */
+	@Override
+	public int[] decide(int step) {
+    	for (int n=0 ; n<camConfig.length ; n++) {
+    		int z = getZoomIndex(step, stats[n]);
+    		int lastZ = camConfig[n];
+    		intended[n] = z;
+    		if (step == 0 || Math.abs(z-lastZ) <= 1)
+    			camConfig[n] = z;
+    		else
+    			camConfig[n] = (z > lastZ) ? lastZ+1 : lastZ-1; 
     	}
-    	
-    	exportResult(minKCover);
-    }
+		return camConfig;
+	}
+
+
+	/**
+	 * Adds the detections of each camera to the statistics of its actual zoom.
+	 * @param step The current time step.
+	 * @param camConfig The zoom index of each camera.
+	 * @param detectedObj The number of objects each camera detects with its zoom.
+	 */
+	@Override
+	public void observe(int step, int[] camConfig, int[] detectedObj) {
+    	for (int n=0 ; n<camConfig.length ; n++) {
+			stats[n][camConfig[n]][0]++; // change 'camConfig[n]' into 'intended[n]' to award the intended zoom
+			stats[n][camConfig[n]][1] += detectedObj[n]; // change 'camConfig[n]' into 'intended[n]' to award the intended zoom
+    	}
+	}
 
     
     /**
@@ -138,70 +148,4 @@ public class EpsilonGreedyActualDO {
 		}
 		return index;
 	}
-
-	
-	/**
-	 * Checked whether an object is detectable by a camera with a specified zoom (FOV).
-	 * @param m The index of the object in the list of objects
-	 * @param n The index of the camera in the list of cameras
-	 * @param z The index of the zoom level in the list of zoom values
-	 * @return True if the object is within FOV (zoom range) AND the camera can see it 
-	 * with a confidence above threshold. False otherwise.
-	 */
-	private boolean isDetectable(int m, int n, int z) {
-		Double distance = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).x), 2) + Math.pow((cameras.get(n).y-objects.get(m).y), 2));
-		if (distance > cameras.get(n).zooms[z])
-			return false;
-		else {
-			double b = 15;
-			Double conf = 0.95 * (b / (cameras.get(n).zooms[z] * distance)) - 0.15;
-			return (conf >= threshold);
-		}
-	}
-
-	
-	/**
-	 * Updates all objects one time step.
-	 */
-	private void updateObjects() {
-		
-		for (Object obj : objects)
-			obj.update();
-	}
-
-	/**
-	 * Writes the result to '*-egreedyActualDO.csv' file.
-	 * @param minKCover The array of minimum k-cover values
-	 */
-	private void exportResult(int[] minKCover) {
-        FileWriter outFile;
-		try {
-			outFile = new FileWriter(outputPath+"-egreedy-act-do.csv");
-	        PrintWriter out = new PrintWriter(outFile);
-	        
-	        out.println("E-Greedy-Act-DO");
-	        for (int k : minKCover)
-	        	out.println(k);        
-	        out.close();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-	}
-
-
-	/**
-	 * Returns the minimum value of a list of integers < 10000.
-	 * @param list The list of integer
-	 * @return The minimum integer value in the list
-	 */
-	private static int minimum(int[] list) {
-		int min = 10000;
-		for (int i : list){
-			if (i < min)
-				min = i;
-		}
-		return min;
-	}
-
-    
 }
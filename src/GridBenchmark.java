@@ -0,0 +1,91 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class GridBenchmark {
+	static final int STEPS = 200;
+	static final Double[] ZOOMS = {2.5, 5.0, 7.5};
+
+	/**
+	 * Compares the detectability computation of StepGeometry with and without the uniform grid
+	 * on random scenarios with a growing number of objects, and reports the time per step of
+	 * both and the speedup of the grid in '*-grid.csv'. The object count where the speedup
+	 * passes 1 is the crossover used by StepGeometry.GRID_MIN_OBJECTS.
+	 * @param args The number of cameras (default 100) and the side of the square field
+	 * (default 100).
+	 */
+	public static void main(String[] args) {
+		int camCount = (args.length > 0) ? Integer.parseInt(args[0]) : 100;
+		double side = (args.length > 1) ? Double.parseDouble(args[1]) : 100;
+
+		DecimalFormat df = new DecimalFormat("#.##");
+		FileWriter outFile;
+		try {
+			outFile = new FileWriter(Main.OutputFilePath+"-grid.csv");
+			PrintWriter out = new PrintWriter(outFile);
+
+			out.println("objects\tscan us/step\tgrid us/step\tspeedup");
+			System.out.println("==========================================");
+			for (int objCount=16 ; objCount<=16384 ; objCount*=2) {
+				double scan = run(camCount, objCount, side, false);
+				double grid = run(camCount, objCount, side, true);
+				String line = objCount+"\t"+df.format(scan)+"\t"+df.format(grid)+"\t"+df.format(scan / grid);
+				out.println(line);
+				System.out.println(line);
+			}
+			out.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Moves the objects of a random scenario and computes the detectability of the objects by
+	 * every camera (with a zoom that rotates over the steps) in each step.
+	 * @param camCount The number of cameras.
+	 * @param objCount The number of objects.
+	 * @param side The side of the square field.
+	 * @param useGrid True to bucket the objects in a uniform grid.
+	 * @return The average time per step in microseconds (after a warm-up run).
+	 */
+	private static double run(int camCount, int objCount, double side, boolean useGrid) {
+		long time = 0;
+		for (int rep=0 ; rep<2 ; rep++) {
+			RandomNumberGenerator rand = new RandomNumberGenerator(Main.seed);
+			Field field = new Field(-side/2, -side/2, side/2, side/2);
+			ArrayList<Camera> cameras = new ArrayList<Camera>();
+			for (int n=0 ; n<camCount ; n++)
+				cameras.add(new Camera("C"+n, (rand.nextDouble()-0.5)*side, (rand.nextDouble()-0.5)*side, ZOOMS));
+			ArrayList<Object> objects = new ArrayList<Object>();
+			for (int m=0 ; m<objCount ; m++)
+				objects.add(new Object("1", (rand.nextDouble()-0.5)*side, (rand.nextDouble()-0.5)*side,
+						rand.nextDouble()*2*Math.PI, 0.3, field, rand));
+
+			ObjectStore store = new ObjectStore(objects);
+			long startTime = System.nanoTime();
+			StepGeometry geometry = new StepGeometry(cameras, objects, Main.THRESHOLD, new DetectionModel(), useGrid);
+			int detected = 0;
+			for (int step=0 ; step<STEPS ; step++) {
+				for (int n=0 ; n<camCount ; n++) {
+					boolean[] row = geometry.getDetectable(n, (n+step) % ZOOMS.length);
+					for (int m=0 ; m<objCount ; m++)
+						if (row[m])
+							detected++;
+				}
+				store.updateAll();
+				geometry.update();
+			}
+			time = System.nanoTime() - startTime;
+			if (detected < 0)
+				System.out.println(detected); // keeps the loop from being optimised away
+		}
+		return time / 1000.0 / STEPS;
+	}
+}
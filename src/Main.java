@@ -1,5 +1,8 @@
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
 
 /*
  * 1-hop Random and 1-hop optimal algorithms added. Also eGreedyActual and eGreedyIntended removed (15)
@@ -26,8 +29,13 @@ public class Main {
   static final String XmlFile = "random2s";
   static final int STEPS = 300;
   static final Double THRESHOLD = 0.3;
-  static final String[] FILES = {"baseline","optimal","zoomout","random","egreedy","qlearning","qlearning-eg","sarsa","egreedy-act-do","egreedy-int-do","oneHopRandom","oneHopOptimal"}; //don't change this order or distance metric won't work!
   static final int QL_CYCLES = 1000;
+  static final boolean MAXMIN_OPTIMAL = false; //solve the optimal algorithm as a max-min k-cover problem (for many cameras)
+  static final int THREADS = Runtime.getRuntime().availableProcessors(); //threads of the optimal searches and of the Q-learning training (1 = serial)
+  static final boolean QL_CAMERA_STREAMS = false; //train the Q-learning cameras with a random stream each, in parallel (false = one stream, the original results)
+  static final boolean LOCKSTEP = true; //run all algorithms in one pass over the objects (false = a pass per algorithm, RUNNERS at a time)
+  static final int RUNNERS = Runtime.getRuntime().availableProcessors(); //algorithms that run at the same time (1 = one after another)
+  static final String TRAJECTORY_FILE = null; //binary file that keeps the object motion out of the heap for very long runs (null = in memory)
   
 //  static String MAINPATH = "C:\\Users\\vejdanpa\\Desktop\\CamSim 15\\CamSimLite"; 
 //  static String XmlFilePath = MAINPATH + "\\scenarios\\"+XmlFile+".xml";
@@ -35,94 +43,153 @@ public class Main {
   static String MAINPATH = "/Users/ali/Desktop/CamSim 15/CamSimLite"; 
   static String XmlFilePath = MAINPATH + "/scenarios/"+XmlFile+".xml";
   static String OutputFilePath = MAINPATH + "/output/"+XmlFile+"-";
+  static String ScenarioCachePath = MAINPATH + "/cache"; //compiled scenarios, by content (null = parse the XML in every run)
+  static String QLCheckpointPath = null; //trained Q-learning algorithms, by scenario and training settings, e.g. MAINPATH + "/checkpoints" (null = train in every run)
   static long seed = 0;
  
 	public static void main(String[] args) throws IOException {
 		long startTime = System.currentTimeMillis();
 		
-		Settings settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		Density density = new Density(settings);
-		long densityTime = System.currentTimeMillis();		
+		// the scenario is read once, every run creates its world from it
+		Scenario scenario = loadScenario();
 
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		Optimal optimal = new Optimal(settings, STEPS, THRESHOLD, OutputFilePath);
-		long optimalTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new Baseline(settings, STEPS, THRESHOLD, OutputFilePath, optimal.getStep0CamConfig());
-		long baseTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new ZoomOut(settings, STEPS, THRESHOLD, OutputFilePath);
-		long zoomoutTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new Arbitrary(settings, STEPS, THRESHOLD, OutputFilePath);
-		long arbitraryTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new EpsilonGreedy(settings, STEPS, THRESHOLD, OutputFilePath);
-		long egreedyTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		Settings settingsCopy = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new QLearning(settings, STEPS, THRESHOLD, OutputFilePath, QL_CYCLES, settingsCopy);
-		long qlearningTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		settingsCopy = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new QLearningEG(settings, STEPS, THRESHOLD, OutputFilePath, QL_CYCLES, settingsCopy);
-		long qlearningegTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new Sarsa(settings, STEPS, THRESHOLD, OutputFilePath);
-		long sarsaTime = System.currentTimeMillis();
+		// the object motion is simulated once and replayed by every algorithm
+		Trajectory trajectory;
+		if (TRAJECTORY_FILE == null)
+			trajectory = new Trajectory(new Settings(scenario, new RandomNumberGenerator(seed)), STEPS+1);
+		else
+			trajectory = new TrajectoryFile(TRAJECTORY_FILE, scenario, seed);
 
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new EpsilonGreedyActualDO(settings, STEPS, THRESHOLD, OutputFilePath);
-		long egreedyActualDOTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new EpsilonGreedyIntendedDO(settings, STEPS, THRESHOLD, OutputFilePath);
-		long egreedyIntendedDOTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new OneHopArbitrary(settings, STEPS, THRESHOLD, OutputFilePath);
-		long oneHopArbitraryTime = System.currentTimeMillis();
-		
-		settings = new Settings(XmlFilePath, new RandomNumberGenerator(seed));
-		new OneHopOptimal(settings, STEPS, THRESHOLD, OutputFilePath);
-		long oneHopOptimalTime = System.currentTimeMillis();
-		
-		new ResultWriter("result",OutputFilePath,FILES,STEPS);
+		// the algorithms to run are named on the command line (all registered algorithms by default)
+		AlgorithmRegistry registry = AlgorithmRegistry.getDefault();
+		if (MAXMIN_OPTIMAL)
+			registry.register(MaxMinOptimal::new);
+		if (QL_CAMERA_STREAMS || QLCheckpointPath != null) {
+			QCheckpoints checkpoints = (QLCheckpointPath == null) ? null : new QCheckpoints(QLCheckpointPath);
+			registry.register(() -> new QLearning(QL_CAMERA_STREAMS, checkpoints));
+			registry.register(() -> new QLearningEG(QL_CAMERA_STREAMS, checkpoints));
+		}
+		String[] names = (args.length > 0) ? args : registry.getNames();
+
+		Simulation simulation = new Simulation(scenario, seed, trajectory, STEPS, THRESHOLD, OutputFilePath, THREADS, QL_CYCLES);
+		int learners = 0; // the detections of their training are computed once and released after the last one
+		for (String name : names)
+			if (registry.create(name) instanceof QLearningBase)
+				learners++;
+		simulation.setTrainingUsers(learners);
+		AlgorithmRunner runner = new AlgorithmRunner(RUNNERS);
+		LinkedHashMap<String, CompletableFuture<int[]>> tasks = new LinkedHashMap<String, CompletableFuture<int[]>>();
+		LinkedHashMap<String, CoverageAlgorithm> algorithms = new LinkedHashMap<String, CoverageAlgorithm>();
+		CompletableFuture<Density> density = runner.submit("density", () -> new Density(new Settings(scenario, new RandomNumberGenerator(seed))));
+		if (LOCKSTEP) {
+			for (String name : names)
+				add(name, registry, algorithms);
+			simulation.run(algorithms.values().toArray(new CoverageAlgorithm[0]));
+		}
+		else {
+			for (String name : names)
+				submit(name, registry, simulation, runner, tasks);
+		}
+		runner.awaitAll();
+		
+		ArrayList<String> columns = new ArrayList<String>();
+		ArrayList<String> labels = new ArrayList<String>();
+		for (String name : registry.getNames()) {
+			if (tasks.containsKey(name) || algorithms.containsKey(name)) {
+				columns.add(name);
+				labels.add(registry.create(name).getRatioLabel());
+			}
+		}
+		new ResultWriter("result",OutputFilePath,columns.toArray(new String[0]),labels.toArray(new String[0]),STEPS);
 
 		
 		
 		DecimalFormat df = new DecimalFormat("#.####");
 		System.out.println("==========================================");
-		System.out.println("Density 1 (camera to object ratio): " + df.format(density.density1));
-		System.out.println("Density 2 (cameras per square unit): " + df.format(density.density2));
-		System.out.println("Density 3 (covered area excluding multiple overlaps): " + df.format(density.density3));
+		System.out.println("Density 1 (camera to object ratio): " + df.format(density.join().density1));
+		System.out.println("Density 2 (cameras per square unit): " + df.format(density.join().density2));
+		System.out.println("Density 3 (covered area excluding multiple overlaps): " + df.format(density.join().density3));
 //		System.out.println("Density 4.0 (covered area including multiple overlaps): " + df.format(density.density4_0));
 //		System.out.println("Density 4.1 (covered area including multiple overlaps): " + df.format(density.density4_1));
 		
 		System.out.println("==========================================");
-		System.out.println("Computing Densities "+(densityTime-startTime)+" ms");
-		System.out.println("Computing Optimal algorithm   "+(optimalTime-densityTime)+" ms");
-		System.out.println("Computing BaseLine algorithm  "+(baseTime-optimalTime)+" ms");
-		System.out.println("Computing Zoom-out algorithm  "+(zoomoutTime-baseTime)+" ms");
-		System.out.println("Computing Random  algorithm   "+(arbitraryTime-zoomoutTime)+" ms");
-		System.out.println("Computing \u03B5-greedy algorithm  "+(egreedyTime-arbitraryTime)+" ms");
-		System.out.println("Computing Q-Learning algorithm\t   "+(qlearningTime-egreedyTime)+" ms");
-		System.out.println("Computing \u03B5g-Q-Learning algorithm  "+(qlearningegTime-qlearningTime)+" ms");
-		System.out.println("Computing Sarsa algorithm  "+(sarsaTime-qlearningegTime)+" ms");
-		System.out.println("Computing \u03B5-greedy-actual-do algorithm  "+(egreedyActualDOTime-sarsaTime)+" ms");
-		System.out.println("Computing \u03B5-greedy-intended-do algorithm  "+(egreedyIntendedDOTime-egreedyActualDOTime)+" ms");
-		System.out.println("Computing 1-hop Random algorithm  "+(oneHopArbitraryTime-egreedyIntendedDOTime)+" ms");
-		System.out.println("Computing 1-hop Optimal algorithm  "+(oneHopOptimalTime-oneHopArbitraryTime)+" ms");
+		System.out.println("Computing Densities "+runner.getTime("density")+" ms");
+		for (String name : columns)
+			System.out.println("Computing "+name+" algorithm  "+timing(LOCKSTEP ? simulation.getTime(name) : runner.getTime(name)));
 		System.out.println("==========================================");
-		System.out.println("Total Running time  = "+(System.currentTimeMillis()-startTime)+" ms");
+		System.out.println("Simulated object steps = "+trajectory.getStepCount());
+		if (trajectory instanceof TrajectoryFile)
+			((TrajectoryFile)trajectory).close();
+		System.out.println("Total Running time  = "+(System.currentTimeMillis()-startTime)+" ms (wall)");
+	}
+
+	
+	/**
+	 * @return The scenario of XmlFilePath, read from the scenario cache when it has compiled
+	 * the same content before.
+	 * @throws IOException If the scenario cannot be read.
+	 */
+	static Scenario loadScenario() throws IOException {
+		if (ScenarioCachePath == null)
+			return new Scenario(XmlFilePath);
+		return new ScenarioCache(ScenarioCachePath).load(XmlFilePath);
+	}
+
+
+	/**
+	 * Adds an algorithm to a lockstep run after the algorithms it depends on (which are
+	 * added first if they are not yet).
+	 * @param name The name of a registered algorithm.
+	 * @param registry The registered algorithms.
+	 * @param algorithms The algorithms of the run by name, in the order they run in each step.
+	 */
+	private static void add(String name, AlgorithmRegistry registry, LinkedHashMap<String, CoverageAlgorithm> algorithms) {
+		if (algorithms.containsKey(name))
+			return;
+		CoverageAlgorithm algorithm = registry.create(name);
+		for (String dependency : algorithm.getDependencies())
+			add(dependency, registry, algorithms);
+		algorithms.put(name, algorithm);
+	}
+
+
+	/**
+	 * Submits an algorithm to the runner after the algorithms it depends on (which are
+	 * submitted first if they are not yet).
+	 * @param name The name of a registered algorithm.
+	 * @param registry The registered algorithms.
+	 * @param simulation The simulation that runs the algorithms.
+	 * @param runner The runner of the algorithms.
+	 * @param tasks The submitted algorithms by name.
+	 * @return The min k-covers of the algorithm once it finishes.
+	 */
+	private static CompletableFuture<int[]> submit(String name, AlgorithmRegistry registry, Simulation simulation, AlgorithmRunner runner,
+			LinkedHashMap<String, CompletableFuture<int[]>> tasks) {
+		CompletableFuture<int[]> task = tasks.get(name);
+		if (task != null)
+			return task;
+		CoverageAlgorithm algorithm = registry.create(name);
+		String[] dependencies = algorithm.getDependencies();
+		if (dependencies.length == 0)
+			task = runner.submit(name, () -> simulation.run(algorithm));
+		else {
+			CompletableFuture<?>[] waitFor = new CompletableFuture<?>[dependencies.length];
+			for (int i=0 ; i<dependencies.length ; i++)
+				waitFor[i] = submit(dependencies[i], registry, simulation, runner, tasks);
+			task = runner.submitAfter(name, CompletableFuture.allOf(waitFor), done -> simulation.run(algorithm));
+		}
+		tasks.put(name, task);
+		return task;
+	}
+	
+	
+	/**
+	 * Formats the running time of an algorithm with its throughput.
+	 * @param ms The running time in milliseconds.
+	 * @return The running time and the number of simulated steps per second.
+	 */
+	private static String timing(long ms) {
+		return ms+" ms ("+new DecimalFormat("#.#").format(STEPS * 1000.0 / Math.max(ms, 1))+" steps/s)";
 	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class MaxMinCover implements MinKSolver {
+	private CoverageTable coverage;
+	private int[][] zoomOptions; // non-dominated zoom options used by the feasibility checks
+	private long[][] reachMasks; // [camera] objects the camera can detect with any of its zoom options
+	private boolean[] assigned;
+	private CoverCounter objCover; // number of assigned cameras that detect each object
+	private CoverCounter objBound; // objCover plus the number of unassigned cameras that can detect each object
+	private long nodesVisited;
+
+
+	/**
+	 * Solves the step as a max-min k-cover problem (one zoom choice per camera, maximise the
+	 * smallest number of cameras that detect an object). The maximum k is found by a binary
+	 * search over k with a depth-first feasibility check ("can every object be k-covered?").
+	 * The configuration is then fixed camera by camera in the order of the exhaustive search
+	 * (last camera first, smallest zoom first), keeping the first zoom that still allows the
+	 * maximum k, so the same configuration as Optimal is returned. The feasibility checks only
+	 * branch on zooms that are not dominated by another zoom of the same camera, since swapping
+	 * a dominated zoom for its dominating one never uncovers an object.
+	 */
+	@Override
+	public int solve(CoverageTable coverage, int[][] zoomOptions, int[] camConfig) {
+		int camCount = coverage.getCameraCount();
+		int objCount = coverage.getObjectCount();
+		this.coverage = coverage;
+		this.zoomOptions = ZoomDominance.prune(coverage, zoomOptions);
+		this.assigned = new boolean[camCount];
+		this.nodesVisited = 0;
+
+		this.reachMasks = new long[camCount][];
+		int[] reachable = new int[objCount];
+		for (int n=0 ; n<camCount ; n++) {
+			reachMasks[n] = coverage.getReachMask(n, this.zoomOptions[n]);
+			for (int m=0 ; m<objCount ; m++)
+				reachable[m] += (int)((reachMasks[n][m >>> 6] >>> m) & 1L);
+		}
+		this.objCover = new CoverCounter(new int[objCount], camCount);
+		this.objBound = new CoverCounter(reachable, camCount);
+
+		// binary search on k: k=0 is always feasible and the bound is an upper limit
+		int low = 0;
+		int high = objBound.getMin();
+		while (low < high) {
+			int k = (low + high + 1) / 2;
+			if (isFeasible(k))
+				low = k;
+			else
+				high = k - 1;
+		}
+
+		for (int n=0 ; n<camCount ; n++)
+			camConfig[n] = 0;
+		if (low == 0)
+			return 0; // as in Optimal, no configuration is better than the initial one
+
+		for (int n=camCount-1 ; n>=0 ; n--) {
+			for (int z : zoomOptions[n]) {
+				assign(n, z);
+				if (isFeasible(low)) {
+					camConfig[n] = z;
+					break;
+				}
+				unassign(n, z);
+			}
+		}
+		return low;
+	}
+
+
+	/**
+	 * Checks whether the current partial configuration can be completed so that every object
+	 * is detected by at least k cameras. It branches on the object with the least slack and
+	 * on the unassigned camera with the fewest zooms that detect it, trying those zooms first.
+	 * @param k The required number of cameras per object.
+	 * @return True if such a completion exists.
+	 */
+	private boolean isFeasible(int k) {
+		nodesVisited++;
+		if (objCover.getMin() >= k)
+			return true;
+		if (objBound.getMin() < k)
+			return false;
+
+		int target = -1;
+		int slack = Integer.MAX_VALUE;
+		for (int m=0 ; m<objCover.size() ; m++) {
+			if (objCover.get(m) < k && objBound.get(m) - k < slack) {
+				target = m;
+				slack = objBound.get(m) - k;
+			}
+		}
+
+		int camera = -1;
+		int fewest = Integer.MAX_VALUE;
+		for (int n=0 ; n<assigned.length ; n++) {
+			if (!assigned[n] && ((reachMasks[n][target >>> 6] >>> target) & 1L) != 0) {
+				int count = 0;
+				for (int z : zoomOptions[n])
+					if (coverage.isDetectable(n, z, target))
+						count++;
+				if (count < fewest) {
+					camera = n;
+					fewest = count;
+				}
+			}
+		}
+
+		for (int pass=0 ; pass<2 ; pass++) {
+			for (int z : zoomOptions[camera]) {
+				if (coverage.isDetectable(camera, z, target) == (pass==0)) {
+					assign(camera, z);
+					boolean feasible = isFeasible(k);
+					unassign(camera, z);
+					if (feasible)
+						return true;
+				}
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Assigns a zoom to a camera.
+	 * @param n The index of the camera in the list of cameras
+	 * @param z The index of the zoom level in the list of zoom values
+	 */
+	private void assign(int n, int z) {
+		assigned[n] = true;
+		objCover.add(coverage.getMask(n, z));
+		objBound.remove(reachMasks[n], coverage.getMask(n, z));
+	}
+
+
+	/**
+	 * Reverts assign(n, z).
+	 * @param n The index of the camera in the list of cameras
+	 * @param z The index of the zoom level in the list of zoom values
+	 */
+	private void unassign(int n, int z) {
+		assigned[n] = false;
+		objCover.remove(coverage.getMask(n, z));
+		objBound.add(reachMasks[n], coverage.getMask(n, z));
+	}
+
+
+	/**
+	 * @return The number of feasibility search nodes visited by the last solve.
+	 */
+	public long getNodesVisited() {
+		return nodesVisited;
+	}
+}
@@ -0,0 +1,103 @@
+import java.util.ArrayList;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class MaxMinOptimal implements CoverageAlgorithm {
+	private ArrayList<Camera> cameras;
+	private Double[] zooms;
+	private StepGeometry geometry; // distances and detectability of the current step
+    private MinKSolver solver;
+    private int[][] zoomOptions;
+    private int[] camConfig;
+
+
+	/**
+	 * Constructor (solves each step with the max-min k-cover solver)
+	 */
+    public MaxMinOptimal() {
+    	this(new MaxMinCover());
+    }
+
+
+	/**
+	 * Constructor
+	 * @param solver The solver that finds the configuration with maximum min k in each step.
+	 */
+    public MaxMinOptimal(MinKSolver solver) {
+		this.solver = solver;
+    }
+
+
+	/**
+	 * @return "optimal" (it replaces the Optimal algorithm)
+	 */
+	@Override
+	public String getName() {
+		return "optimal";
+	}
+
+
+	/**
+	 * @return "optimal"
+	 */
+	@Override
+	public String getLabel() {
+		return "optimal";
+	}
+
+
+	/**
+	 * @param simulation The simulation that runs the algorithm.
+	 * @param settings The scenario of this run.
+	 * @param geometry The detectability of the objects of this run at the current step.
+	 */
+	@Override
+	public void init(Simulation simulation, Settings settings, StepGeometry geometry) {
+		System.out.println("Running Optimal algorithm (max-min k-cover solver) ....\n");
+		this.cameras = settings.cameras;
+		this.zooms = this.cameras.get(0).zooms;
+		this.geometry = geometry;
+		this.zoomOptions = allZoomOptions();
+		this.camConfig = new int[cameras.size()];
+	}
+
+
+	/**
+	 * Selects the configuration with the maximum min k-cover of the step.
+	 * @param step The current time step.
+	 * @return The zoom index of each camera.
+	 */
+	@Override
+	public int[] decide(int step) {
+		solver.solve(geometry.getCoverageTable(), zoomOptions, camConfig);
+		return camConfig;
+	}
+
+
+	/**
+	 * The steps are solved independently; prints the progress of the step on one line (other
+	 * algorithms run between decide and observe in a lockstep run).
+	 * @param step The current time step.
+	 * @param camConfig The zoom index of each camera.
+	 * @param detectedObj The number of objects each camera detects with its zoom.
+	 */
+	@Override
+	public void observe(int step, int[] camConfig, int[] detectedObj) {
+		System.out.println(getName()+" step "+step+" .... COMPLETE");
+	}
+
+
+	/**
+	 * Returns the zoom options of the cameras, which are all zoom levels for every camera.
+	 * @return A list of zoom indexes for each camera.
+	 */
+	private int[][] allZoomOptions() {
+		int[][] options = new int[cameras.size()][zooms.length];
+		for (int n=0 ; n<cameras.size() ; n++)
+			for (int z=0 ; z<zooms.length ; z++)
+				options[n][z] = z;
+		return options;
+	}
+}
@@ -0,0 +1,17 @@
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public interface MinKSolver {
+
+	/**
+	 * Finds the camera configuration with the maximum min k-cover of a step. When several
+	 * configurations reach it, the one the exhaustive search of Optimal would select is returned.
+	 * @param coverage The objects detected by each camera with each zoom (FOV) at the step.
+	 * @param zoomOptions The zoom indexes (in ascending order) each camera may take.
+	 * @param camConfig The list that receives the zoom index of each camera.
+	 * @return The maximum min k-cover.
+	 */
+	int solve(CoverageTable coverage, int[][] zoomOptions, int[] camConfig);
+}
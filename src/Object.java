@@ -16,6 +16,8 @@ public class Object {
 	int timestep;
 	ArrayList<Point2D> waypoints;
 	int nextWaypointIndex;
+	ObjectPositions store; // holds the state once the object is a view on a store (null before)
+	int index; // the index of the object in the store
 	
 	/**
 	 * Constructor
@@ -48,11 +50,56 @@ public class Object {
 	}
 	
 	
+	/**
+	 * Constructor (a view on a store, which holds the state of the object)
+	 */
+	public Object (String id, int timestep, Field field, RandomNumberGenerator rand) {
+		this.id = id;
+		this.timestep = timestep;
+		this.field = field;
+		this.randomGen = rand;
+	}
+	
+	
+	/**
+	 * Makes the object a view on a store, which holds its state from now on.
+	 * @param store The store of the objects (an ObjectStore simulates them, a ReplayStore
+	 * replays a recorded motion).
+	 * @param index The index of the object in the store.
+	 */
+	void attach(ObjectPositions store, int index) {
+		this.store = store;
+		this.index = index;
+	}
+
+
+	/**
+	 * @return The current x coordinate of the object.
+	 */
+	public double getX() {
+		return (store != null) ? store.getX(index) : x;
+	}
+
+
+	/**
+	 * @return The current y coordinate of the object.
+	 */
+	public double getY() {
+		return (store != null) ? store.getY(index) : y;
+	}
+
+
 	/**
 	 * Updates the position of the object based on current position, heading and speed 
+	 * @throws IllegalStateException If the object replays a recorded motion (a ReplayStore
+	 * only moves all objects at once, with updateAll).
 	 */
 	public void update() {
-		if (waypoints == null) 
+		if (store instanceof ObjectStore)
+			((ObjectStore)store).update(index);
+		else if (store != null)
+			throw new IllegalStateException("Object "+id+" replays a recorded motion, it only moves with all objects");
+		else if (waypoints == null) 
 		{
 	        double x_move = 0;
 	        double y_move = 0;
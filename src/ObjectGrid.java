@@ -0,0 +1,125 @@
+import java.util.Arrays;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class ObjectGrid {
+	private double minX, minY;
+	private double cellSize;
+	private int columns, rows;
+	private int[] cellStart; // [cell] index of the first object of each cell in cellObjects (one extra entry at the end)
+	private int[] cellObjects; // object indexes sorted by cell
+	private int[] objectCell; // [object] the cell of each object
+
+
+	/**
+	 * Constructor
+	 * A uniform grid over the field that buckets the objects by position, so a proximity
+	 * query only visits the objects of the cells around a point. Objects outside the field are
+	 * kept in the nearest border cell.
+	 * @param field The field the objects move in.
+	 * @param cellSize The side of a cell (at least the largest query radius keeps a query
+	 * within 3x3 cells). Cells are widened so the grid has at most objCount cells.
+	 * @param objCount The number of objects.
+	 */
+	public ObjectGrid(Field field, double cellSize, int objCount) {
+		this.minX = field.minX;
+		this.minY = field.minY;
+		double width = field.maxX - field.minX;
+		double height = field.maxY - field.minY;
+		long maxCells = Math.max(1, objCount);
+		if (getCellCount(width, height, cellSize) > maxCells) {
+			cellSize = Math.max(cellSize, Math.sqrt(width * height / maxCells));
+			while (getCellCount(width, height, cellSize) > maxCells)
+				cellSize *= 1.1;
+		}
+		this.cellSize = cellSize;
+		this.columns = (int)Math.max(1, Math.ceil(width / cellSize));
+		this.rows = (int)Math.max(1, Math.ceil(height / cellSize));
+		this.cellStart = new int[columns*rows + 1];
+		this.cellObjects = new int[objCount];
+		this.objectCell = new int[objCount];
+	}
+
+
+	/**
+	 * @param width The width of the field.
+	 * @param height The height of the field.
+	 * @param cellSize The side of a cell.
+	 * @return The number of cells of a grid over the field.
+	 */
+	private static double getCellCount(double width, double height, double cellSize) {
+		return Math.max(1, Math.ceil(width / cellSize)) * Math.max(1, Math.ceil(height / cellSize));
+	}
+
+
+	/**
+	 * Buckets the objects by their current positions (a counting sort over the cells).
+	 * @param x The x coordinate of each object.
+	 * @param y The y coordinate of each object.
+	 */
+	public void rebuild(double[] x, double[] y) {
+		Arrays.fill(cellStart, 0);
+		for (int m=0 ; m<objectCell.length ; m++) {
+			objectCell[m] = getRow(y[m]) * columns + getColumn(x[m]);
+			cellStart[objectCell[m]+1]++;
+		}
+		for (int c=0 ; c<columns*rows ; c++)
+			cellStart[c+1] += cellStart[c];
+		for (int m=objectCell.length-1 ; m>=0 ; m--)
+			cellObjects[--cellStart[objectCell[m]+1]] = m;
+		// cellStart[c+1] now holds the start of cell c; shift it back by one cell
+		System.arraycopy(cellStart, 1, cellStart, 0, columns*rows);
+		cellStart[columns*rows] = objectCell.length;
+	}
+
+
+	/**
+	 * @param x An x coordinate.
+	 * @return The column of the grid that contains it (clamped to the grid).
+	 */
+	public int getColumn(double x) {
+		int c = (int)Math.floor((x - minX) / cellSize);
+		return (c < 0) ? 0 : (c >= columns ? columns-1 : c);
+	}
+
+
+	/**
+	 * @param y A y coordinate.
+	 * @return The row of the grid that contains it (clamped to the grid).
+	 */
+	public int getRow(double y) {
+		int r = (int)Math.floor((y - minY) / cellSize);
+		return (r < 0) ? 0 : (r >= rows ? rows-1 : r);
+	}
+
+
+	/**
+	 * @param column A column of the grid.
+	 * @param row A row of the grid.
+	 * @return The position in the sorted objects where the cell starts.
+	 */
+	public int getCellStart(int column, int row) {
+		return cellStart[row*columns + column];
+	}
+
+
+	/**
+	 * @param column A column of the grid.
+	 * @param row A row of the grid.
+	 * @return The position in the sorted objects where the cell ends (exclusive).
+	 */
+	public int getCellEnd(int column, int row) {
+		return cellStart[row*columns + column + 1];
+	}
+
+
+	/**
+	 * @param i A position in the sorted objects.
+	 * @return The index of the object in the list of objects.
+	 */
+	public int getObject(int i) {
+		return cellObjects[i];
+	}
+}
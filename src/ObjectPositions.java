@@ -0,0 +1,31 @@
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public interface ObjectPositions {
+
+	/**
+	 * Moves all objects to their positions of the next time step.
+	 */
+	void updateAll();
+
+
+	/**
+	 * @param m The index of the object in the list of objects
+	 * @return The x coordinate of the object.
+	 */
+	double getX(int m);
+
+
+	/**
+	 * @param m The index of the object in the list of objects
+	 * @return The y coordinate of the object.
+	 */
+	double getY(int m);
+
+
+	/**
+	 * @return The number of objects.
+	 */
+	int size();
+}
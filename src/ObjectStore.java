@@ -0,0 +1,198 @@
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class ObjectStore implements ObjectPositions {
+	private double[] x, y; // position of each object
+	private double[] heading; // heading of each free moving object
+	private double[] speed; // speed of each object
+	private int[] nextWaypointIndex; // index of the next waypoint target of each object with waypoints
+	private double[][] waypointX, waypointY; // [object][waypoint] waypoints of each object (null for free moving objects)
+	private double[] minX, minY, maxX, maxY; // field of each object
+	private RandomNumberGenerator[] randomGen; // random number generator of each object (bounce angles)
+
+
+	/**
+	 * Constructor
+	 * Moves the state of the objects into primitive arrays (one per property), so a step is a
+	 * tight loop over the arrays that does not chase pointers or box values. The objects
+	 * stay usable as views: their positions and updates go through the store. Used for
+	 * objects created in code (the objects of a scenario start from its Scenario).
+	 * @param objects The list of objects (at their initial state).
+	 */
+	public ObjectStore(ArrayList<Object> objects) {
+		int objCount = objects.size();
+		x = new double[objCount];
+		y = new double[objCount];
+		heading = new double[objCount];
+		speed = new double[objCount];
+		nextWaypointIndex = new int[objCount];
+		waypointX = new double[objCount][];
+		waypointY = new double[objCount][];
+		minX = new double[objCount];
+		minY = new double[objCount];
+		maxX = new double[objCount];
+		maxY = new double[objCount];
+		randomGen = new RandomNumberGenerator[objCount];
+
+		for (int m=0 ; m<objCount ; m++) {
+			Object obj = objects.get(m);
+			x[m] = obj.x;
+			y[m] = obj.y;
+			heading[m] = obj.heading;
+			speed[m] = obj.speed;
+			nextWaypointIndex[m] = obj.nextWaypointIndex;
+			if (obj.waypoints != null) {
+				waypointX[m] = new double[obj.waypoints.size()];
+				waypointY[m] = new double[obj.waypoints.size()];
+				for (int i=0 ; i<obj.waypoints.size() ; i++) {
+					Point2D point = obj.waypoints.get(i);
+					waypointX[m][i] = point.getX();
+					waypointY[m][i] = point.getY();
+				}
+			}
+			minX[m] = obj.field.minX;
+			minY[m] = obj.field.minY;
+			maxX[m] = obj.field.maxX;
+			maxY[m] = obj.field.maxY;
+			randomGen[m] = obj.randomGen;
+			obj.attach(this, m);
+		}
+	}
+
+
+	/**
+	 * Constructor
+	 * Holds the state of the objects in primitive arrays (one per property), so a step is a
+	 * tight loop over the arrays that does not chase pointers or box values. The state starts
+	 * as a copy of the initial state of the scenario; the waypoints are shared, as they never
+	 * change. The objects become views: their positions and updates go through the store.
+	 * @param scenario The parsed scenario.
+	 * @param objects The objects of the scenario, in its order.
+	 */
+	public ObjectStore(Scenario scenario, ArrayList<Object> objects) {
+		int objCount = scenario.getObjectCount();
+		x = scenario.getInitialX();
+		y = scenario.getInitialY();
+		heading = scenario.getInitialHeading();
+		speed = scenario.getSpeed();
+		nextWaypointIndex = new int[objCount];
+		waypointX = new double[objCount][];
+		waypointY = new double[objCount][];
+		minX = new double[objCount];
+		minY = new double[objCount];
+		maxX = new double[objCount];
+		maxY = new double[objCount];
+		randomGen = new RandomNumberGenerator[objCount];
+
+		for (int m=0 ; m<objCount ; m++) {
+			Object obj = objects.get(m);
+			waypointX[m] = scenario.getWaypointX(m);
+			waypointY[m] = scenario.getWaypointY(m);
+			if (waypointX[m] != null)
+				nextWaypointIndex[m] = 1; // the object starts at its first waypoint
+			minX[m] = obj.field.minX;
+			minY[m] = obj.field.minY;
+			maxX[m] = obj.field.maxX;
+			maxY[m] = obj.field.maxY;
+			randomGen[m] = obj.randomGen;
+			obj.attach(this, m);
+		}
+	}
+
+
+	/**
+	 * Updates all objects one time step, in the order of the list of objects (the objects
+	 * that bounce off the field boundary draw from the random number generator in that order).
+	 */
+	@Override
+	public void updateAll() {
+		for (int m=0 ; m<x.length ; m++)
+			update(m);
+	}
+
+
+	/**
+	 * Updates the position of an object based on current position, heading and speed, or
+	 * moves it towards its next waypoint.
+	 * @param m The index of the object in the list of objects
+	 */
+	public void update(int m) {
+		double[] wx = waypointX[m];
+		if (wx == null) {
+			double x_move = Math.sin(heading[m]) * speed[m];
+			double y_move = Math.cos(heading[m]) * speed[m];
+			x[m] += x_move;
+			y[m] += y_move;
+
+			// If we breach any boundary, bounce off at a slightly randomised angle
+			if (x[m] > maxX[m] || x[m] < minX[m] || y[m] > maxY[m] || y[m] < minY[m]) {
+				double angle = Math.PI; // Turn 180 degrees
+				angle += (randomGen[m].nextDouble()*2-1.0) * Math.PI / 6.0; // adds -30.0 to +30.0 degrees
+				heading[m] += angle;
+				// Undo move across boundary
+				x[m] -= x_move;
+				y[m] -= y_move;
+			}
+		}
+		else {
+			int next = nextWaypointIndex[m];
+			double nextX = wx[next];
+			double nextY = waypointY[m][next];
+			double px = x[m] - nextX; // as in Point2D.distance
+			double py = y[m] - nextY;
+			double distance = Math.sqrt(px*px + py*py);
+
+			if (distance <= speed[m]) {
+				x[m] = nextX;
+				y[m] = nextY;
+				nextWaypointIndex[m] = (next+1 == wx.length) ? 0 : next+1;
+			}
+			else {
+				x[m] += speed[m] * (nextX - x[m]) / distance;
+				y[m] += speed[m] * (nextY - y[m]) / distance;
+			}
+		}
+	}
+
+
+	/**
+	 * @param m The index of the object in the list of objects
+	 * @return The x coordinate of the object.
+	 */
+	@Override
+	public double getX(int m) {
+		return x[m];
+	}
+
+
+	/**
+	 * @param m The index of the object in the list of objects
+	 * @return The y coordinate of the object.
+	 */
+	@Override
+	public double getY(int m) {
+		return y[m];
+	}
+
+
+	/**
+	 * @param m The index of the object in the list of objects
+	 * @return The heading of the object.
+	 */
+	public double getHeading(int m) {
+		return heading[m];
+	}
+
+
+	/**
+	 * @return The number of objects.
+	 */
+	@Override
+	public int size() {
+		return x.length;
+	}
+}
@@ -10,19 +10,25 @@ import java.util.ArrayList;
 public class OldOptimal {
 	private ArrayList<Camera> cameras;
 	private ArrayList<Object> objects;
+	private ObjectPositions store; // primitive state of the objects
 	private Double[] zooms;
 	private int steps;
 	private Double threshold;
+	private StepGeometry geometry; // distances and detectability of the current step
     private String outputPath;
     private int[] step0CamConfig;
+    private CoverageTable coverage; //detected objects of each camera and zoom at the current step
+    private CoverCounter objCover; //for internal use with recursive function
 
     public OldOptimal(Settings settings, int steps, Double threshold, String outputPath) {
 		System.out.println("Running Optimal algorithm ....\n");
 		this.cameras = settings.cameras;
 		this.objects = settings.objects;
+		this.store = settings.store;
 		this.zooms = this.cameras.get(0).zooms;
 		this.steps = steps;
 		this.threshold = threshold;
+		this.geometry = new StepGeometry(cameras, objects, threshold);
 		this.outputPath = outputPath;
 		run();
     }
@@ -41,6 +47,8 @@ public class OldOptimal {
 			System.out.println("************");
 			
 			System.out.print("step "+step+":  ");
+			coverage = geometry.getCoverageTable();
+			objCover = new CoverCounter(new int[objects.size()], cameras.size());
 			populateTable(minKs, cameras.size(), new int[cameras.size()]);
 			
 			int[] kCover = getMaximum(minKs);
@@ -82,7 +90,8 @@ public class OldOptimal {
 
 	/**
 	 * populate a given list by computing the minimum k-cover of corresponding camera configurations.
-	 * Each item correspond to a unique combination of cameras configurations.
+	 * Each item correspond to a unique combination of cameras configurations. The object covers
+	 * (objCover) and their minimum are updated along the recursion path, one camera at a time.
 	 * @param tables The list to be populated.
 	 * @param size The number of cameras in each (recursive) run.
 	 * @param zoomList An (initially empty) auxiliary list for keeping the configuration indexes.
@@ -94,39 +103,21 @@ public class OldOptimal {
 			for (int p = 0 ; p < zoomList.length ; p++)
 				count += zoomList[p] * (int)Math.pow(zooms.length, p);
 //			System.out.println("["+zoomList[0]+","+zoomList[1]+","+zoomList[2]+","+zoomList[3]+"]");
-			tables[count] = getMinK(zoomList);
+			tables[count] = objCover.getMin();
 //			System.out.println("table "+count+":\tmin-k: "+tables[count]);
 
 		}
 		else {
 			for (int z=0 ; z<zooms.length ; z++) {
 				zoomList[size-1] = z;
+				objCover.add(coverage.getMask(size-1, z));
 				populateTable(tables, size-1, zoomList);
+				objCover.remove(coverage.getMask(size-1, z));
 			}
 		}
 	}
 
 	
-	/**
-	 * Returns the minimum number of cameras that detect each object.
-	 * @param zoomList List of selected cameras' zoom indexes.
-	 * @return the k value of k-cover with a specific (given) camera configuration.
-	 */
-	private int getMinK(int[] zoomList) {
-    	int[] objCover = new int[objects.size()];
-
-    	for (int n=0 ; n<cameras.size() ; n++) {
-    		int z = zoomList[n];
-			for (int m=0 ; m<objects.size() ; m++) {
-				if (isDetectable(m, n, z))
-					objCover[m]++;
-			}
-    	}
-    	
-    	return minimum(objCover);
-	}
-
-	
 	/**
 	 * Returns the respective cameras zoom (FOV) configuration.
 	 * @param number The number assigned to the configuration table.
@@ -142,48 +133,13 @@ public class OldOptimal {
 	}
 
 	
-	/**
-	 * Checked whether an object is detectable by a camera with a specified zoom (FOV).
-	 * @param m The index of the object in the list of objects
-	 * @param n The index of the camera in the list of cameras
-	 * @param z The index of the zoom level in the list of zoom values
-	 * @return True if the object is within FOV (zoom range) AND the camera can see it 
-	 * with a confidence above threshold. False otherwise.
-	 */
-	private boolean isDetectable(int m, int n, int z) {
-		Double distance = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).x), 2) + Math.pow((cameras.get(n).y-objects.get(m).y), 2));
-		if (distance > cameras.get(n).zooms[z])
-			return false;
-		else {
-			double b = 15;
-			Double conf = 0.95 * (b / (cameras.get(n).zooms[z] * distance)) - 0.15;
-			return (conf >= threshold);
-		}
-	}
-
-	
-	/**
-	 * Returns the minimum value of a list of integers < 10000.
-	 * @param list The list of integer
-	 * @return The minimum integer value in the list
-	 */
-	private static int minimum(int[] list) {
-		int min = 10000;
-		for (int i : list){
-			if (i < min)
-				min = i;
-		}
-		return min;
-	}
-
-	
 	/**
 	 * Updates all objects one time step.
 	 */
 	private void updateObjects() {
 		
-		for (Object obj : objects)
-			obj.update();
+		store.updateAll();
+		geometry.update();
 	}
 
 	
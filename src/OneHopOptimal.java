@@ -1,200 +1,151 @@
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
+import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
 *
 * @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
 */
-public class OneHopOptimal {
+public class OneHopOptimal implements CoverageAlgorithm {
 	private ArrayList<Camera> cameras;
-	private ArrayList<Object> objects;
 	private Double[] zooms;
 	private int steps;
-	private Double threshold;
-    private String outputPath;
-    private int[] step0CamConfig;
+	private StepGeometry geometry; // distances and detectability of the current step
+    private int[] z; //zoom indexes of the cameras in the previous step (-1 in the first step)
     private int tempMinK; //for internal use with recursive function
     private int[] tempCamConfig; //for internal use with recursive function
+    private double leavesDropped; //total orders of magnitude of leaves dropped by zoom dominance in all steps
+    private int threads; //number of threads of the search (1 = serial)
+    private ForkJoinPool pool;
 
  
 	/**
-	 * Constructor
-	 * @param settings An instance of Settings class that contains all scenario settings.
-	 * @param steps Number of time steps the simulation will run for.
-	 * @param threshold The selected confidence threshold to determine whether an object
-	 * is detectable or not.
-	 * @param outputPath The path to output folder.
+	 * @return "oneHopOptimal"
 	 */
-    public OneHopOptimal(Settings settings, int steps, Double threshold, String outputPath) {
-		System.out.println("Running Optimal algorithm ....\n");
-		this.cameras = settings.cameras;
-		this.objects = settings.objects;
-		this.zooms = this.cameras.get(0).zooms;
-		this.steps = steps;
-		this.threshold = threshold;
-		this.outputPath = outputPath;
-		this.step0CamConfig = new int[cameras.size()];
-		Arrays.fill(step0CamConfig, 0);
-		run();
-    }
-
-    
-    /**
-     * Runs the optimal algorithm simulation
-     */
-    private void run() {
-		int[] minKCover = new int[steps];
-		int[] z = new int[cameras.size()];
-    	for (int n=0 ; n<cameras.size() ; n++)
-    		z[n] = -1;
-
-		for (int step=0 ; step<steps ; step++) {
-			tempMinK = 0;
-			tempCamConfig = new int[cameras.size()];
-			
-			System.out.print("step "+step+" .... ");
-			computeMinKCover(cameras.size(), new int[cameras.size()], z);
-			z = tempCamConfig.clone();
-			minKCover[step] = tempMinK;
-			if (step==0)
-				step0CamConfig = tempCamConfig.clone();
-			
-			updateObjects();
-			System.out.println("COMPLETE");
-		}
-		long tableCount = (long)Math.pow(zooms.length, cameras.size());
-		System.out.println("Table Count = "+tableCount+"\n");		
-    	exportResult(minKCover);
+	@Override
+	public String getName() {
+		return "oneHopOptimal";
 	}
 
-	
+
 	/**
-	 * Computes the minimum k-covers for a given step by finding the table with maximum min k and
-	 * saves the value in a global variable (tempMinK) to be used in run().
-	 * @param size The number of cameras in each (recursive) run.
-	 * @param zoomList An (initially empty) auxiliary list for keeping the configuration indexes.
-	 * @param step The current time step.
+	 * @return "1-hop optimal"
 	 */
-	private void computeMinKCover(int size, int[] zoomList, int[] zIndex) {
-		if (size==0) {
-			int tableResult = getMinK(zoomList);			
-			if (tableResult > tempMinK) {
-				tempMinK = tableResult;
-				tempCamConfig = zoomList.clone();
-			}
-		}
-		else {
-			if (zIndex[0]==-1) {
-				for (int z=0 ; z<zooms.length ; z++) {
-					zoomList[size-1] = z;
-					computeMinKCover(size-1, zoomList, zIndex);
-				}
-			}
-			else {
-				for (int z=0 ; z<zooms.length ; z++) {
-					if (Math.abs(z-zIndex[size-1])<2) {
-						zoomList[size-1] = z;
-						computeMinKCover(size-1, zoomList, zIndex);
-					}
-				}				
-			}
-		}
+	@Override
+	public String getLabel() {
+		return "1-hop optimal";
 	}
 
-	
+
 	/**
-	 * Returns the minimum number of cameras that detect each object.
-	 * @param zoomList List of selected cameras' zoom indexes.
-	 * @return the k value of k-cover with a specific (given) camera configuration.
+	 * @return "1-HopOptimal"
 	 */
-	private int getMinK(int[] zoomList) {
-    	int[] objCover = new int[objects.size()];
-
-    	for (int n=0 ; n<cameras.size() ; n++) {
-    		int z = zoomList[n];
-			for (int m=0 ; m<objects.size() ; m++) {
-				if (isDetectable(m, n, z))
-					objCover[m]++;
-			}
-    	}
-    	
-    	return minimum(objCover);
+	@Override
+	public String getRatioLabel() {
+		return "1-HopOptimal";
 	}
 
-	
+
 	/**
-	 * Checked whether an object is detectable by a camera with a specified zoom (FOV).
-	 * @param m The index of the object in the list of objects
-	 * @param n The index of the camera in the list of cameras
-	 * @param z The index of the zoom level in the list of zoom values
-	 * @return True if the object is within FOV (zoom range) AND the camera can see it 
-	 * with a confidence above threshold. False otherwise.
+	 * Starts the thread pool of the search (with the threads of the simulation).
+	 * @param simulation The simulation that runs the algorithm.
+	 * @param settings The scenario of this run.
+	 * @param geometry The detectability of the objects of this run at the current step.
 	 */
-	private boolean isDetectable(int m, int n, int z) {
-		Double distance = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).x), 2) + Math.pow((cameras.get(n).y-objects.get(m).y), 2));
-		if (distance > cameras.get(n).zooms[z])
-			return false;
-		else {
-			double b = 15;
-			Double conf = 0.95 * (b / (cameras.get(n).zooms[z] * distance)) - 0.15;
-			return (conf >= threshold);
-		}
+	@Override
+	public void init(Simulation simulation, Settings settings, StepGeometry geometry) {
+		System.out.println("Running 1-Hop Optimal algorithm ....\n");
+		this.cameras = settings.cameras;
+		this.zooms = this.cameras.get(0).zooms;
+		this.steps = simulation.getSteps();
+		this.geometry = geometry;
+		this.threads = simulation.getThreads();
+		this.pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+		this.z = new int[cameras.size()];
+		Arrays.fill(z, -1);
 	}
 
-	
+
 	/**
-	 * Returns the minimum value of a list of integers < 10000.
-	 * @param list The list of integer
-	 * @return The minimum integer value in the list
+	 * Selects the configuration with the maximum min k-cover of the step among the zooms
+	 * within one level of the previous step.
+	 * @param step The current time step.
+	 * @return The zoom index of each camera.
 	 */
-	private static int minimum(int[] list) {
-		int min = 10000;
-		for (int i : list){
-			if (i < min)
-				min = i;
-		}
-		return min;
+	@Override
+	public int[] decide(int step) {
+		tempMinK = 0;
+		tempCamConfig = new int[cameras.size()];
+		
+		computeMinKCover(z);
+		return tempCamConfig;
 	}
 
-	
+
 	/**
-	 * Updates all objects one time step.
+	 * Keeps the configuration of the step, which limits the zooms of the next step, and prints
+	 * the progress of the step on one line (other algorithms run between decide and observe
+	 * in a lockstep run).
+	 * @param step The current time step.
+	 * @param camConfig The zoom index of each camera.
+	 * @param detectedObj The number of objects each camera detects with its zoom.
 	 */
-	private void updateObjects() {
-		
-		for (Object obj : objects)
-			obj.update();
+	@Override
+	public void observe(int step, int[] camConfig, int[] detectedObj) {
+		z = camConfig.clone();
+		System.out.println(getName()+" step "+step+" .... COMPLETE");
+	}
+
+
+	/**
+	 * Prints the statistics of the searches and stops the thread pool.
+	 */
+	@Override
+	public void finish() {
+		if (pool != null)
+			pool.shutdown();
+		long tableCount = (long)Math.pow(zooms.length, cameras.size());
+		System.out.println("Table Count = "+tableCount+" (searched with "+threads+" thread"+(threads>1 ? "s" : "")+")");
+		System.out.println("Dominated zooms shrank the search space by 10^"+new DecimalFormat("#.#").format(leavesDropped/steps)+" per step on average");
 	}
 
 	
 	/**
-	 * Writes the result to '*-oneHopOptimal.csv' file.
-	 * @param minKCover The array of minimum k-cover values
+	 * Computes the minimum k-covers for a given step by finding the table with maximum min k and
+	 * saves the value in a global variable (tempMinK) to be used in decide(). Each camera may only
+	 * move one zoom level away from its previous zoom (or take any zoom in the first step), and
+	 * the zooms that are dominated by an earlier zoom option of the same camera are dropped. Each
+	 * group of cameras that shares no object with the others is searched on its own.
+	 * @param zIndex The zoom indexes of the cameras in the previous step (-1 in the first step).
 	 */
-	private void exportResult(int[] minKCover) {
-        FileWriter outFile;
-		try {
-			outFile = new FileWriter(outputPath+"-oneHopOptimal.csv");
-	        PrintWriter out = new PrintWriter(outFile);
-	        
-	        out.println("1-hop optimal");
-	        for (int k : minKCover)
-	        	out.println(k);        
-	        out.close();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+	private void computeMinKCover(int[] zIndex) {
+		CoverageTable coverage = geometry.getCoverageTable();
+		int[][] allOptions = getZoomOptions(zIndex);
+		int[][] zoomOptions = ZoomDominance.pruneOrdered(coverage, allOptions);
+		leavesDropped += ZoomDominance.log10Leaves(allOptions) - ZoomDominance.log10Leaves(zoomOptions);
+		CameraComponents components = new CameraComponents(coverage, zoomOptions, pool);
+		tempMinK = components.getBestMinK();
+		tempCamConfig = components.getBestCamConfig();
 	}
 
 	
 	/**
-	 * Gives read access to the camera configurations that is selected in step 0 of the runtime 
-	 * @return A list camera configurations that is optimised for step 0
+	 * Returns the zoom levels each camera can take in this step.
+	 * @param zIndex The zoom indexes of the cameras in the previous step (-1 in the first step).
+	 * @return A list of zoom indexes (in ascending order) for each camera.
 	 */
-	public int[] getStep0CamConfig() {
-		return step0CamConfig;
+	private int[][] getZoomOptions(int[] zIndex) {
+		int[][] options = new int[cameras.size()][];
+		for (int n=0 ; n<cameras.size() ; n++) {
+			int count = 0;
+			int[] list = new int[zooms.length];
+			for (int z=0 ; z<zooms.length ; z++) {
+				if (zIndex[0]==-1 || Math.abs(z-zIndex[n])<2)
+					list[count++] = z;
+			}
+			options[n] = Arrays.copyOf(list, count);
+		}
+		return options;
 	}
 }
@@ -1,195 +1,157 @@
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
+import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
 *
 * @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
 */
-public class Optimal {
+public class Optimal implements CoverageAlgorithm {
 	private ArrayList<Camera> cameras;
-	private ArrayList<Object> objects;
 	private Double[] zooms;
 	private int steps;
-	private Double threshold;
-    private String outputPath;
-    private int[] step0CamConfig;
+	private StepGeometry geometry; // distances and detectability of the current step
     private int tempMinK; //for internal use with recursive function
     private int[] tempCamConfig; //for internal use with recursive function
+    private long nodesVisited; //total branch and bound nodes visited in all steps
+    private long nodesPruned; //total branch and bound nodes pruned in all steps
+    private double leavesDropped; //total orders of magnitude of leaves dropped by zoom dominance in all steps
+    private int threads; //number of threads of the search (1 = serial)
+    private ForkJoinPool pool;
+    private CoverageTable previousCoverage; //coverage table of the previous step (null in step 0)
+    private int[] previousCamConfig; //configuration selected in the previous step (null in step 0)
+    private int cacheHits; //steps whose coverage table did not change from the previous step
+    private long searchTime; //total nanoseconds spent searching the steps that were not cached
+    private String searchInfo; //how the search of the current step went (printed with the step in observe)
 
  
 	/**
-	 * Constructor
-	 * @param settings An instance of Settings class that contains all scenario settings.
-	 * @param steps Number of time steps the simulation will run for.
-	 * @param threshold The selected confidence threshold to determine whether an object
-	 * is detectable or not.
-	 * @param outputPath The path to output folder.
+	 * @return "optimal"
 	 */
-    public Optimal(Settings settings, int steps, Double threshold, String outputPath) {
-		System.out.println("Running Optimal algorithm ....\n");
-		this.cameras = settings.cameras;
-		this.objects = settings.objects;
-		this.zooms = this.cameras.get(0).zooms;
-		this.steps = steps;
-		this.threshold = threshold;
-		this.outputPath = outputPath;
-		this.step0CamConfig = new int[cameras.size()];
-		Arrays.fill(step0CamConfig, 0);
-		run();
-    }
-
-    
-    /**
-     * Runs the optimal algorithm simulation
-     */
-    private void run() {
-		int[] minKCover = new int[steps];
-
-		for (int step=0 ; step<steps ; step++) {
-			tempMinK = 0;
-			tempCamConfig = new int[cameras.size()];
-			
-			System.out.print("step "+step+" .... ");
-			computeMinKCover(cameras.size(), new int[cameras.size()], step);
-			
-			minKCover[step] = tempMinK;
-			if (step==0)
-				step0CamConfig = tempCamConfig.clone();
-			
-			updateObjects();
-			System.out.println("COMPLETE");
-		}
-		long tableCount = (long)Math.pow(zooms.length, cameras.size());
-		System.out.println("Table Count = "+tableCount+"\n");		
-    	exportResult(minKCover);
+	@Override
+	public String getName() {
+		return "optimal";
 	}
 
-	
+
 	/**
-	 * Computes the minimum k-covers for a given step by finding the table with maximum min k and
-	 * saves the value in a global variable (tempMinK) to be used in run().
-	 * @param size The number of cameras in each (recursive) run.
-	 * @param zoomList An (initially empty) auxiliary list for keeping the configuration indexes.
-	 * @param step The current time step.
+	 * @return "optimal"
 	 */
-	private void computeMinKCover(int size, int[] zoomList, int step) {
-		if (size==0) {
-			int tableResult = getMinK(zoomList);
-			if (tableResult > tempMinK) {
-				tempMinK = tableResult;
-				tempCamConfig = zoomList.clone();
-			}
-
-//			System.out.print("Step "+step+": [");
-//			for (int i=0 ; i<zoomList.length ; i++) {
-//				System.out.print(zoomList[i]);
-//				if (i<zoomList.length-1)
-//					System.out.print(",");
-//			}
-//			System.out.println("] ::: "+tableResult);
-		}
-		else {
-			for (int z=0 ; z<zooms.length ; z++) {
-				zoomList[size-1] = z;
-				computeMinKCover(size-1, zoomList, step);
-			}
-		}
+	@Override
+	public String getLabel() {
+		return "optimal";
 	}
 
-	
+
 	/**
-	 * Returns the minimum number of cameras that detect each object.
-	 * @param zoomList List of selected cameras' zoom indexes.
-	 * @return the k value of k-cover with a specific (given) camera configuration.
+	 * Starts the thread pool of the search (with the threads of the simulation).
+	 * @param simulation The simulation that runs the algorithm.
+	 * @param settings The scenario of this run.
+	 * @param geometry The detectability of the objects of this run at the current step.
 	 */
-	private int getMinK(int[] zoomList) {
-    	int[] objCover = new int[objects.size()];
-
-    	for (int n=0 ; n<cameras.size() ; n++) {
-    		int z = zoomList[n];
-			for (int m=0 ; m<objects.size() ; m++) {
-				if (isDetectable(m, n, z))
-					objCover[m]++;
-			}
-    	}
-    	
-    	return minimum(objCover);
+	@Override
+	public void init(Simulation simulation, Settings settings, StepGeometry geometry) {
+		System.out.println("Running Optimal algorithm ....\n");
+		this.cameras = settings.cameras;
+		this.zooms = this.cameras.get(0).zooms;
+		this.steps = simulation.getSteps();
+		this.geometry = geometry;
+		this.threads = simulation.getThreads();
+		this.pool = (threads > 1) ? new ForkJoinPool(threads) : null;
 	}
 
-	
+
 	/**
-	 * Checked whether an object is detectable by a camera with a specified zoom (FOV).
-	 * @param m The index of the object in the list of objects
-	 * @param n The index of the camera in the list of cameras
-	 * @param z The index of the zoom level in the list of zoom values
-	 * @return True if the object is within FOV (zoom range) AND the camera can see it 
-	 * with a confidence above threshold. False otherwise.
+	 * Selects the configuration with the maximum min k-cover of the step.
+	 * @param step The current time step.
+	 * @return The zoom index of each camera.
 	 */
-	private boolean isDetectable(int m, int n, int z) {
-		Double distance = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).x), 2) + Math.pow((cameras.get(n).y-objects.get(m).y), 2));
-		if (distance > cameras.get(n).zooms[z])
-			return false;
-		else {
-			double b = 15;
-			Double conf = 0.95 * (b / (cameras.get(n).zooms[z] * distance)) - 0.15;
-			return (conf >= threshold);
-		}
+	@Override
+	public int[] decide(int step) {
+		tempMinK = 0;
+		tempCamConfig = new int[cameras.size()];
+		
+		computeMinKCover(step);
+		return tempCamConfig;
 	}
 
-	
+
 	/**
-	 * Returns the minimum value of a list of integers < 10000.
-	 * @param list The list of integer
-	 * @return The minimum integer value in the list
+	 * Keeps the configuration of the step to seed the search of the next step and prints the
+	 * progress of the step on one line (other algorithms run between decide and observe in a
+	 * lockstep run).
+	 * @param step The current time step.
+	 * @param camConfig The zoom index of each camera.
+	 * @param detectedObj The number of objects each camera detects with its zoom.
 	 */
-	private static int minimum(int[] list) {
-		int min = 10000;
-		for (int i : list){
-			if (i < min)
-				min = i;
-		}
-		return min;
+	@Override
+	public void observe(int step, int[] camConfig, int[] detectedObj) {
+		previousCamConfig = camConfig.clone();
+		System.out.println(getName()+" step "+step+" .... "+searchInfo+"COMPLETE");
 	}
 
-	
+
 	/**
-	 * Updates all objects one time step.
+	 * Prints the statistics of the searches and stops the thread pool.
 	 */
-	private void updateObjects() {
-		
-		for (Object obj : objects)
-			obj.update();
+	@Override
+	public void finish() {
+		if (pool != null)
+			pool.shutdown();
+		long tableCount = (long)Math.pow(zooms.length, cameras.size());
+		System.out.println("Table Count = "+tableCount+" (searched with "+threads+" thread"+(threads>1 ? "s" : "")+")");
+		System.out.println("Dominated zooms shrank the search space by 10^"+new DecimalFormat("#.#").format(leavesDropped/steps)+" per step on average");
+		System.out.println("Nodes visited = "+nodesVisited+", pruned = "+nodesPruned);
+		int misses = steps - cacheHits;
+		double savedMs = (misses > 0) ? cacheHits * (searchTime / 1e6) / misses : 0;
+		System.out.println("Cache hits = "+cacheHits+"/"+steps+" ("+new DecimalFormat("#.#").format(100.0*cacheHits/steps)+"%), time saved = ~"+new DecimalFormat("#.#").format(savedMs)+" ms");
 	}
 
 	
 	/**
-	 * Writes the result to '*-egreedy.csv' file.
-	 * @param minKCover The array of minimum k-cover values
+	 * Computes the minimum k-covers for a given step by finding the table with maximum min k and
+	 * saves the value in a global variable (tempMinK) to be used in decide(). The configurations
+	 * are searched by branch and bound instead of enumerating all zooms^cameras tables, after
+	 * dropping the zooms that are dominated by an earlier zoom of the same camera, and each
+	 * group of cameras that shares no object with the others is searched on its own.
+	 * A step whose coverage table is the one of the previous step (e.g. the objects did not move
+	 * relative to the zoom ranges) reuses its configuration; otherwise the min k of the previous step's
+	 * configuration on the current positions seeds the search bound.
+	 * @param step The current time step.
 	 */
-	private void exportResult(int[] minKCover) {
-        FileWriter outFile;
-		try {
-			outFile = new FileWriter(outputPath+"-optimal.csv");
-	        PrintWriter out = new PrintWriter(outFile);
-	        
-	        out.println("optimal");
-	        for (int k : minKCover)
-	        	out.println(k);        
-	        out.close();
-		} catch (IOException e) {
-			e.printStackTrace();
+	private void computeMinKCover(int step) {
+		CoverageTable coverage = geometry.getCoverageTable();
+		if (previousCoverage != null && previousCamConfig != null && coverage.equals(previousCoverage)) {
+			tempMinK = coverage.getMinK(previousCamConfig);
+			tempCamConfig = previousCamConfig.clone();
+			cacheHits++;
+			searchInfo = "(cached) ";
+			return;
 		}
+
+		long start = System.nanoTime();
+		int[][] zoomOptions = ZoomDominance.pruneOrdered(coverage, allZoomOptions());
+		leavesDropped += cameras.size() * Math.log10(zooms.length) - ZoomDominance.log10Leaves(zoomOptions);
+		CameraComponents components = new CameraComponents(coverage, zoomOptions, pool, previousCamConfig);
+		tempMinK = components.getBestMinK();
+		tempCamConfig = components.getBestCamConfig();
+		previousCoverage = coverage;
+		searchTime += System.nanoTime() - start;
+		nodesVisited += components.getNodesVisited();
+		nodesPruned += components.getNodesPruned();
+		searchInfo = "("+components.size()+" components, visited "+components.getNodesVisited()+", pruned "+components.getNodesPruned()+") ";
 	}
 
 	
 	/**
-	 * Gives read access to the camera configurations that is selected in step 0 of the runtime 
-	 * @return A list camera configurations that is optimised for step 0
+	 * Returns the zoom options of the cameras, which are all zoom levels for every camera.
+	 * @return A list of zoom indexes for each camera.
 	 */
-	public int[] getStep0CamConfig() {
-		return step0CamConfig;
+	private int[][] allZoomOptions() {
+		int[][] options = new int[cameras.size()][zooms.length];
+		for (int n=0 ; n<cameras.size() ; n++)
+			for (int z=0 ; z<zooms.length ; z++)
+				options[n][z] = z;
+		return options;
 	}
 }
@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class QCheckpoint {
+	static final int MAGIC = 0x43535351; // "CSSQ"
+	static final int VERSION = 2;
+	static final int HEADER_BYTES = 20; // magic, version, hash of the scenario file, checksum of the rest
+
+	private String name; // the name of the algorithm
+	private String training; // the hyperparameters and the version of the training code
+	private long scenarioHash;
+	private long seed;
+	private double threshold;
+	private int steps;
+	private int cycles; // the training cycles of the Q matrices
+	private boolean cameraStreams;
+	private int camCount;
+	private int zoomCount;
+	private int objCount;
+	private ByteBuffer buffer; // the checkpoint (the sections below are read on demand)
+	private int actionOffset; // the action of each state of each camera
+	private int randomOffset; // the states of the random number generators of the training
+	private int qOffset; // the stored values of each row of the Q matrices
+
+
+	/**
+	 * Constructor (reads a checkpoint written by compile())
+	 * The trained state of a Q-learning algorithm, saved so later runs of the same scenario and
+	 * training settings skip the training (or resume it with more cycles): the learnt actions,
+	 * the random number generators of the training and the Q matrices (only their stored
+	 * values). The buffer is usually a memory-mapped file, so a run that only needs the
+	 * actions never reads the Q matrices into the heap.
+	 * @param buffer The checkpoint (from its start).
+	 * @throws IOException If the data is not a checkpoint of this version.
+	 */
+	public QCheckpoint(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+				throw new IOException("Not a Q-learning checkpoint of version "+VERSION);
+			this.scenarioHash = buffer.getLong();
+			if (buffer.getInt() != getChecksum(buffer))
+				throw new IOException("Corrupt Q-learning checkpoint");
+			byte[] nameBytes = new byte[buffer.getInt()];
+			buffer.get(nameBytes);
+			this.name = new String(nameBytes, StandardCharsets.UTF_8);
+			byte[] trainingBytes = new byte[buffer.getInt()];
+			buffer.get(trainingBytes);
+			this.training = new String(trainingBytes, StandardCharsets.UTF_8);
+			this.seed = buffer.getLong();
+			this.threshold = buffer.getDouble();
+			this.steps = buffer.getInt();
+			this.cycles = buffer.getInt();
+			this.cameraStreams = buffer.getInt() != 0;
+			this.camCount = buffer.getInt();
+			this.zoomCount = buffer.getInt();
+			this.objCount = buffer.getInt();
+
+			int stateCount = zoomCount * (objCount+1);
+			this.actionOffset = buffer.position();
+			buffer.position(actionOffset + 4*camCount*stateCount);
+			this.randomOffset = buffer.position();
+			int streamCount = buffer.getInt();
+			for (int i=0 ; i<streamCount ; i++)
+				buffer.position(buffer.position() + 4 + buffer.getInt(buffer.position()));
+			this.qOffset = buffer.position();
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException("Truncated Q-learning checkpoint", e);
+		}
+	}
+
+
+	/**
+	 * Encodes the trained state of an algorithm in a compact binary form (little-endian): a
+	 * header (magic, version, hash of the scenario file, CRC-32 of the rest), the training
+	 * settings (with the hyperparameters of the algorithm), the actions, the random number generators, then the stored values of each row
+	 * of the Q matrices.
+	 * @param name The name of the algorithm.
+	 * @param training The hyperparameters of the algorithm and the version of its training code.
+	 * @param simulation The simulation the algorithm was trained for.
+	 * @param cameraStreams True if each camera was trained with a random number stream of its own.
+	 * @param cycles The training cycles of the Q matrices.
+	 * @param Q The Q matrices.
+	 * @param action The action of each state of each camera.
+	 * @param streams The random number generators of the training (one per camera, or the
+	 * one the cameras share).
+	 * @return The checkpoint (positioned at its start).
+	 */
+	public static ByteBuffer compile(String name, String training, Simulation simulation, boolean cameraStreams, int cycles, QTable Q, int[][] action, RandomNumberGenerator[] streams) {
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		byte[] trainingBytes = training.getBytes(StandardCharsets.UTF_8);
+		Scenario scenario = simulation.getScenario();
+		int camCount = scenario.getCameraCount();
+		int objCount = scenario.getObjectCount();
+		int stateCount = Q.getStateCount();
+		int zoomCount = stateCount / (objCount+1);
+
+		byte[][] randomStates = new byte[streams.length][];
+		long bytes = HEADER_BYTES + 4 + nameBytes.length + 4 + trainingBytes.length + 2*8 + 6*4 + 4L*camCount*stateCount + 4;
+		for (int i=0 ; i<streams.length ; i++) {
+			randomStates[i] = streams[i].getState();
+			bytes += 4 + randomStates[i].length;
+		}
+		int[][][] stored = new int[camCount][stateCount][];
+		for (int n=0 ; n<camCount ; n++) {
+			for (int state=0 ; state<stateCount ; state++) {
+				stored[n][state] = Q.getStored(n, state);
+				bytes += 4 + (4+8)*stored[n][state].length;
+			}
+		}
+		if (bytes > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("The Q matrices are too large for a checkpoint ("+bytes+" bytes)");
+
+		ByteBuffer compiled = ByteBuffer.allocate((int)bytes).order(ByteOrder.LITTLE_ENDIAN);
+		compiled.putInt(MAGIC).putInt(VERSION).putLong(simulation.getScenario().getHash()).putInt(0);
+		compiled.putInt(nameBytes.length).put(nameBytes);
+		compiled.putInt(trainingBytes.length).put(trainingBytes);
+		compiled.putLong(simulation.getSeed()).putDouble(simulation.getThreshold());
+		compiled.putInt(simulation.getSteps()).putInt(cycles).putInt(cameraStreams ? 1 : 0);
+		compiled.putInt(camCount).putInt(zoomCount).putInt(objCount);
+		for (int n=0 ; n<camCount ; n++)
+			for (int state=0 ; state<stateCount ; state++)
+				compiled.putInt(action[n][state]);
+		compiled.putInt(randomStates.length);
+		for (byte[] state : randomStates)
+			compiled.putInt(state.length).put(state);
+		for (int n=0 ; n<camCount ; n++) {
+			for (int state=0 ; state<stateCount ; state++) {
+				compiled.putInt(stored[n][state].length);
+				for (int next : stored[n][state])
+					compiled.putInt(next).putDouble(Q.get(n, state, next));
+			}
+		}
+		compiled.flip();
+		compiled.position(HEADER_BYTES);
+		compiled.putInt(HEADER_BYTES-4, getChecksum(compiled));
+		compiled.position(0);
+		return compiled;
+	}
+
+
+	/**
+	 * @param buffer A checkpoint, positioned after its header.
+	 * @return The CRC-32 of the rest of the buffer (the position does not change).
+	 */
+	private static int getChecksum(ByteBuffer buffer) {
+		CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate());
+		return (int)crc.getValue();
+	}
+
+
+	/**
+	 * Checks whether the checkpoint was trained for the same scenario, settings and algorithm
+	 * (with the cycles of the simulation or fewer, which the training can resume from).
+	 * @param name The name of the algorithm.
+	 * @param training The hyperparameters of the algorithm and the version of its training code.
+	 * @param simulation The simulation of the run.
+	 * @param cameraStreams True if each camera is trained with a random number stream of its own.
+	 * @param stateCount The number of states of a camera (zooms*(objects+1)).
+	 * @return True if the algorithm can continue from the checkpoint.
+	 */
+	public boolean matches(String name, String training, Simulation simulation, boolean cameraStreams, int stateCount) {
+		return this.name.equals(name) && this.training.equals(training) && scenarioHash == simulation.getScenario().getHash()
+				&& seed == simulation.getSeed() && threshold == simulation.getThreshold()
+				&& steps == simulation.getSteps() && cycles <= simulation.getCycles()
+				&& this.cameraStreams == cameraStreams && camCount == simulation.getScenario().getCameraCount()
+				&& zoomCount * (objCount+1) == stateCount;
+	}
+
+
+	/**
+	 * @return The training cycles of the Q matrices.
+	 */
+	public int getCycles() {
+		return cycles;
+	}
+
+
+	/**
+	 * @return The action (next zoom index) of each state of each camera.
+	 */
+	public int[][] getAction() {
+		int stateCount = zoomCount * (objCount+1);
+		int[][] action = new int[camCount][stateCount];
+		int position = actionOffset;
+		for (int n=0 ; n<camCount ; n++) {
+			for (int state=0 ; state<stateCount ; state++) {
+				action[n][state] = buffer.getInt(position);
+				position += 4;
+			}
+		}
+		return action;
+	}
+
+
+	/**
+	 * @return The random number generators of the training, in the state the training
+	 * stopped in (one per camera, or the one the cameras share).
+	 * @throws IOException If the saved states are not states of generators.
+	 */
+	public RandomNumberGenerator[] getRandomStreams() throws IOException {
+		int position = randomOffset;
+		RandomNumberGenerator[] streams = new RandomNumberGenerator[buffer.getInt(position)];
+		position += 4;
+		for (int i=0 ; i<streams.length ; i++) {
+			byte[] state = new byte[buffer.getInt(position)];
+			ByteBuffer bytes = buffer.duplicate();
+			bytes.position(position + 4);
+			bytes.get(state);
+			streams[i] = new RandomNumberGenerator();
+			streams[i].setState(state);
+			position += 4 + state.length;
+		}
+		return streams;
+	}
+
+
+	/**
+	 * Sets the stored values of the Q matrices in new (all 0.0) Q matrices.
+	 * @param Q The Q matrices of the same dimensions.
+	 */
+	public void getQ(QTable Q) {
+		int stateCount = zoomCount * (objCount+1);
+		int position = qOffset;
+		for (int n=0 ; n<camCount ; n++) {
+			for (int state=0 ; state<stateCount ; state++) {
+				int count = buffer.getInt(position);
+				position += 4;
+				for (int i=0 ; i<count ; i++) {
+					Q.set(n, state, buffer.getInt(position), buffer.getDouble(position+4));
+					position += 4+8;
+				}
+			}
+		}
+	}
+}
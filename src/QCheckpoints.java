@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.TreeMap;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class QCheckpoints {
+	private Path checkpointDir;
+
+
+	/**
+	 * Constructor
+	 * A folder of trained Q-learning algorithms, one file per algorithm, scenario content and
+	 * training settings ('<name>-<hash>-<threshold>-<steps>-<seed>-<streams|single>-<training>-<cycles>.qtable',
+	 * where training names the hyperparameters and the version of the training code).
+	 * A run loads the checkpoint with the cycles of the simulation instead of training, or
+	 * resumes the training from the one with the most cycles below them.
+	 * @param checkpointDir The path of the folder (created when the first checkpoint is saved).
+	 */
+	public QCheckpoints(String checkpointDir) {
+		this.checkpointDir = Paths.get(checkpointDir);
+	}
+
+
+	/**
+	 * Finds the checkpoint an algorithm can continue from: the one with the cycles of the
+	 * simulation, or the one with the most cycles below them. Files that cannot be read are
+	 * skipped.
+	 * @param name The name of the algorithm.
+	 * @param training The hyperparameters of the algorithm and the version of its training code.
+	 * @param simulation The simulation of the run.
+	 * @param cameraStreams True if each camera is trained with a random number stream of its own.
+	 * @param stateCount The number of states of a camera (zooms*(objects+1)).
+	 * @return The checkpoint (memory-mapped), or null if there is none.
+	 */
+	public QCheckpoint load(String name, String training, Simulation simulation, boolean cameraStreams, int stateCount) {
+		if (!Files.isDirectory(checkpointDir))
+			return null;
+		String prefix = getPrefix(name, training, simulation, cameraStreams);
+		TreeMap<Integer, Path> candidates = new TreeMap<Integer, Path>(); // by cycles
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(checkpointDir, prefix+"*.qtable")) {
+			for (Path file : files) {
+				String fileName = file.getFileName().toString();
+				try {
+					int cycles = Integer.parseInt(fileName.substring(prefix.length(), fileName.length()-".qtable".length()));
+					if (cycles > 0 && cycles <= simulation.getCycles())
+						candidates.put(cycles, file);
+				} catch (NumberFormatException e) {
+					// not a checkpoint of these settings
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+
+		for (Path file : candidates.descendingMap().values()) {
+			try {
+				QCheckpoint checkpoint = new QCheckpoint(map(file));
+				if (checkpoint.matches(name, training, simulation, cameraStreams, stateCount))
+					return checkpoint;
+				System.out.println("Q-learning checkpoint "+file+" does not match its name, it is skipped");
+			} catch (IOException e) {
+				System.out.println("Q-learning checkpoint "+file+" cannot be read ("+e.getMessage()+"), it is skipped");
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Saves the trained state of an algorithm (replacing a checkpoint of the same cycles).
+	 * @param name The name of the algorithm.
+	 * @param training The hyperparameters of the algorithm and the version of its training code.
+	 * @param simulation The simulation the algorithm was trained for.
+	 * @param cameraStreams True if each camera was trained with a random number stream of its own.
+	 * @param cycles The training cycles of the Q matrices.
+	 * @param Q The Q matrices.
+	 * @param action The action of each state of each camera.
+	 * @param streams The random number generators of the training (one per camera, or the
+	 * one the cameras share).
+	 */
+	public void save(String name, String training, Simulation simulation, boolean cameraStreams, int cycles, QTable Q, int[][] action, RandomNumberGenerator[] streams) {
+		try {
+			write(QCheckpoint.compile(name, training, simulation, cameraStreams, cycles, Q, action, streams), getPath(name, training, simulation, cameraStreams, cycles));
+		} catch (IOException | IllegalArgumentException e) {
+			e.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * @param name The name of the algorithm.
+	 * @param training The hyperparameters of the algorithm and the version of its training code.
+	 * @param simulation The simulation of the run.
+	 * @param cameraStreams True if each camera is trained with a random number stream of its own.
+	 * @param cycles The training cycles.
+	 * @return The path of the checkpoint of these settings.
+	 */
+	public Path getPath(String name, String training, Simulation simulation, boolean cameraStreams, int cycles) {
+		return checkpointDir.resolve(getPrefix(name, training, simulation, cameraStreams)+cycles+".qtable");
+	}
+
+
+	/**
+	 * @return The name of the checkpoints of these settings, up to the cycles.
+	 */
+	private static String getPrefix(String name, String training, Simulation simulation, boolean cameraStreams) {
+		return String.format("%s-%016x-%s-%d-%d-%s-%s-", name, simulation.getScenario().getHash(), simulation.getThreshold(),
+				simulation.getSteps(), simulation.getSeed(), cameraStreams ? "streams" : "single", training);
+	}
+
+
+	/**
+	 * @param path The path of a checkpoint.
+	 * @return The content of the file, memory-mapped (read-only).
+	 * @throws IOException If the file cannot be mapped.
+	 */
+	private static ByteBuffer map(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+
+	/**
+	 * Writes a checkpoint to a temporary file and moves it in place, so concurrent runs never
+	 * read a partly written file.
+	 * @param compiled The checkpoint.
+	 * @param path The path of the checkpoint.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void write(ByteBuffer compiled, Path path) throws IOException {
+		Files.createDirectories(checkpointDir);
+		Path temp = Files.createTempFile(checkpointDir, "qtable", ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				while (compiled.hasRemaining())
+					channel.write(compiled);
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+}
@@ -0,0 +1,305 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+
+public abstract class QLearningBase implements CoverageAlgorithm {
+	
+    protected final double alpha = 0.1; // Learning rate
+    protected final double gamma = 0.9; // Eagerness - 0 looks in the near future, 1 looks in the distant future
+    static final int TRAINING_VERSION = 1; // version of the training code (reward function, zoom selection) in the checkpoints, raised when it changes
+    private boolean cameraStreams; // true: a random number stream per camera, cameras trained in parallel
+    private Simulation simulation; // gives the detections of the training motion
+    private ArrayList<Camera> cameras;
+	private ArrayList<Object> objects;
+	protected Double[] zooms;
+	private int steps;
+    private RandomNumberGenerator rand;
+    private RandomNumberGenerator[] rands; // the random number generator of each camera in the training (with cameraStreams)
+    private QCheckpoints checkpoints; // trained states of earlier runs (null to train in every run)
+    private int cycles;
+    private int threads; // threads of the training (cameras are split between them)
+    private QTable Q; // (z*o)X(z*o) matrix for each camera
+    private double[][][] QF; // (z*o)X(z) matrix for each camera
+    private int[][] action; // an array of length (z*o) for each camera
+    private int[] crtZoom; // the zoom index of each camera in the current step of the run
+
+
+	/**
+	 * Constructor
+	 * The training and the run the Q-learning algorithms share. The algorithms only differ in
+	 * the zooms their training selects (see getTrainingZoom).
+	 * @param cameraStreams True to train each camera with a random number stream of its own,
+	 * in parallel on the threads of the simulation (the same result for any number of threads).
+	 * False to draw the zooms of all cameras from one stream in turn, on one thread (the
+	 * results of the original algorithms).
+	 * @param checkpoints The checkpoints to load the trained state from and save it to (null
+	 * to train in every run).
+	 */
+	protected QLearningBase(boolean cameraStreams, QCheckpoints checkpoints) {
+		this.cameraStreams = cameraStreams;
+		this.checkpoints = checkpoints;
+	}
+
+
+	/**
+	 * Trains the Q matrices on the detections of the training motion and infers the action
+	 * of each state. With checkpoints, the actions of an earlier run with the same scenario
+	 * and training settings are loaded instead, or its training is resumed.
+	 * @param simulation The simulation that runs the algorithm.
+	 * @param settings The scenario of this run.
+	 * @param geometry The detectability of the objects of this run at the current step.
+	 */
+	@Override
+	public void init(Simulation simulation, Settings settings, StepGeometry geometry) {
+		this.simulation = simulation;
+		this.cameras = settings.cameras;
+		this.objects = settings.objects;
+		this.zooms = this.cameras.get(0).zooms;
+		this.steps = simulation.getSteps();
+    	this.rand = new RandomNumberGenerator(4112017);
+    	this.rands = cameraStreams ? RandomNumberGenerator.split(4112017, cameras.size()) : null;
+    	this.cycles = simulation.getCycles();
+    	this.threads = cameraStreams ? simulation.getThreads() : 1;
+    	QF = new double[cameras.size()][][];
+    	action = new int[cameras.size()][zooms.length*(objects.size()+1)];
+    	crtZoom = new int[cameras.size()];
+
+    	int trained = (checkpoints == null) ? 0 : restore();
+    	if (trained < cycles) {
+    		if (Q == null)
+    			Q = QTable.create(cameras.size(), zooms.length, objects.size()); // all elements of Q matrices are 0.0
+    		try {
+    			calculateQ(trained);
+    		} finally {
+    			simulation.releaseTrainingCounts(); // the last learning algorithm drops the detections of the training
+    		}
+    		inferAction();
+    		if (checkpoints != null)
+    			checkpoints.save(getName(), getTraining(), simulation, cameraStreams, cycles, Q, action, getStreams());
+    	}
+    	else
+    		simulation.releaseTrainingCounts(); // loaded from the checkpoint, no training needed
+	}
+
+
+	/**
+	 * Continues from the checkpoint of an earlier run: takes its actions if it was trained
+	 * for all cycles, or its Q matrices to resume the training, and the random number
+	 * generators of its training in both cases.
+	 * @return The cycles of the checkpoint (0 if there is none).
+	 */
+	private int restore() {
+		QCheckpoint checkpoint = checkpoints.load(getName(), getTraining(), simulation, cameraStreams, zooms.length*(objects.size()+1));
+		if (checkpoint == null)
+			return 0;
+		RandomNumberGenerator[] streams;
+		try {
+			streams = checkpoint.getRandomStreams();
+		} catch (IOException e) {
+			e.printStackTrace();
+			return 0;
+		}
+		if (streams.length != getStreams().length)
+			return 0;
+		if (cameraStreams)
+			rands = streams;
+		else
+			rand = streams[0];
+
+		if (checkpoint.getCycles() == cycles)
+			action = checkpoint.getAction();
+		else {
+			Q = QTable.create(cameras.size(), zooms.length, objects.size());
+			checkpoint.getQ(Q);
+		}
+		return checkpoint.getCycles();
+	}
+
+
+	/**
+	 * @return The hyperparameters and the version of the training code, which a checkpoint
+	 * has to be trained with.
+	 */
+	protected String getTraining() {
+		return "alpha"+alpha+"-gamma"+gamma+"-v"+TRAINING_VERSION;
+	}
+
+
+	/**
+	 * @return The distinct random number generators of the training (one per camera, or the
+	 * one the cameras share).
+	 */
+	private RandomNumberGenerator[] getStreams() {
+		return cameraStreams ? rands : new RandomNumberGenerator[] {rand};
+	}
+
+
+	/**
+	 * Calculates the Q matrices of individual cameras and transforms the final Q matrices
+	 * into QF matrices which only have zoom index as their columns (as opposed to z*(obj+1)
+	 * in Q matrices). The Q matrix of a camera only depends on its own zooms and detections,
+	 * so the cameras are split into groups that train at the same time.
+	 * @param firstCycle The first cycle to train (the cycles of a resumed checkpoint).
+	 */
+	private void calculateQ(int firstCycle) {
+		TrainingCounts counts = simulation.getTrainingCounts(firstCycle);
+		int camCount = cameras.size();
+		RandomNumberGenerator[] rands = cameraStreams ? this.rands : new RandomNumberGenerator[camCount];
+		if (!cameraStreams)
+			Arrays.fill(rands, rand); // the cameras draw from one stream in turn
+
+		int workers = Math.max(1, Math.min(threads, camCount));
+		if (workers == 1)
+			train(0, camCount, rands, counts);
+		else {
+			ForkJoinPool pool = new ForkJoinPool(workers);
+			ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[workers];
+			for (int w=0 ; w<workers ; w++) {
+				int first = w * camCount / workers;
+				int last = (w+1) * camCount / workers;
+				tasks[w] = pool.submit(() -> train(first, last, rands, counts));
+			}
+			for (ForkJoinTask<?> task : tasks)
+				task.join();
+			pool.shutdown();
+		}
+
+    	// calculating QF
+    	for (int n=0 ; n<camCount ; n++)
+    		QF[n] = Q.getZoomValues(n);
+	}
+
+
+	/**
+	 * Trains the Q matrices of a group of cameras over the cycles. A cycle only looks up the
+	 * detections of the zooms it selects.
+	 * @param first The index of the first camera of the group.
+	 * @param last The index after the last camera of the group.
+	 * @param rands The random number generator of each camera.
+	 * @param counts The detections of each camera and zoom in every step of the training.
+	 */
+	private void train(int first, int last, RandomNumberGenerator[] rands, TrainingCounts counts) {
+		int[][][] stats = new int[steps+1][cameras.size()][2]; // overwritten in every cycle
+		int[][][] zoomStats = new int[cameras.size()][zooms.length][2]; // selections and detections of each zoom in the cycle so far
+    	for (int i=counts.getFirstCycle() ; i<cycles ; i++) {
+    		for (int[][] camStats : zoomStats)
+    			for (int[] stat : camStats)
+    				Arrays.fill(stat, 0);
+
+    		// selecting zooms and looking up the detected objects for all steps
+    		for (int step=0 ; step<steps+1 ; step++) {    			
+        		for (int n=first ; n<last ; n++) {
+        			int crtZoom = getTrainingZoom(n, step, zoomStats[n], rands[n]);
+        			int detectedObj = counts.get(i, step, n, crtZoom);
+        			stats[step][n][0] = crtZoom; // saves the current zoom index
+        			stats[step][n][1] = detectedObj; // saves the number of detected object by this camera with this zoom at this step
+        			
+        			zoomStats[n][crtZoom][0]++;
+    				zoomStats[n][crtZoom][1] += detectedObj;
+        		}        		
+    		}
+    		
+    		// Modifying Q of each camera for all steps of the cycle
+    		for (int step=0 ; step<steps ; step++) {
+        		for (int n=first ; n<last ; n++) {
+        			int crtZoom = stats[step][n][0];
+        			int crtDO = stats[step][n][1];
+        			int nxtZoom = stats[(step+1)][n][0];
+        			int nxtDO = stats[(step+1)][n][1];
+        			double r = nxtDO - crtDO; // define reward function
+//        			r = r * Math.abs(r);
+//        			if (r > 0) r = r * r;
+//        			if (r == 0) r = crtZoom - nxtZoom;
+	    			Q.update(n, Q.getState(crtZoom, crtDO), Q.getState(nxtZoom, nxtDO), r, alpha, gamma);
+        		}
+    		}    		
+    	}
+	}
+
+
+	/**
+	 * Selects the zoom of a camera in a step of a training cycle.
+	 * @param n The index of the camera in the list of cameras.
+	 * @param step The step of the cycle.
+	 * @param stats A two-dimensional array with the list of zoom level indexes on the first
+	 * dimension and a pair of integers on the second dimension. The first item in each pair
+	 * is the number of times (steps) it was set as the zoom level of the camera in the cycle
+	 * so far. The second item is the sum of the number of objects the camera detected with
+	 * that zoom level.
+	 * @param rand The random number generator of the camera.
+	 * @return A zoom index from the zooms array.
+	 */
+	protected abstract int getTrainingZoom(int n, int step, int[][] stats, RandomNumberGenerator rand);
+
+
+	/**
+	 * Infers actions (next zooms) for each zoom-detectedObj combination by finding the
+	 * zoom with maximum QF value.
+	 */
+    private void inferAction() {
+    	for (int n=0 ; n<cameras.size() ; n++) {
+			for (int z1=0 ; z1<zooms.length ; z1++) {
+				for (int m=0 ; m<objects.size() ; m++) {
+					int z2 = getMaxIndex(QF[n][z1*(objects.size()+1)+m]);
+					action[n][z1*(objects.size()+1)+m] = z2;
+				}
+			}
+    	}
+	}
+
+	
+	/**
+	 * Finds the index of the maximum value in a list of integers
+	 * @param list A list of integers
+	 * @return A integer value (index) between 0 and list.length-1
+	 */
+	private int getMaxIndex(double[] list) {
+		int index = 0;
+		double value = list[0];
+		for (int i=1 ; i<list.length ; i++) {
+			if (list[i]>=value) {
+				value = list[i];
+				index = i;
+			}
+		}
+		return index;
+	}
+
+
+	/**
+	 * Selects a random zoom for every camera in step 0, then keeps the zooms the learnt
+	 * actions selected in observe.
+	 * @param step The current time step.
+	 * @return The zoom index of each camera.
+	 */
+	@Override
+	public int[] decide(int step) {
+    	if (step==0) {
+    		for(int i=0 ; i<cameras.size() ; i++)
+    			crtZoom[i] = rand.nextInt(zooms.length); // the initial zoom level of each camera at step 0
+    	}
+		return crtZoom;
+	}
+
+
+	/**
+	 * Selects the next zoom of each camera by its learnt action for its zoom and detections.
+	 * @param step The current time step.
+	 * @param camConfig The zoom index of each camera.
+	 * @param detectedObj The number of objects each camera detects with its zoom.
+	 */
+	@Override
+	public void observe(int step, int[] camConfig, int[] detectedObj) {
+		for (int n=0 ; n<cameras.size() ; n++)
+			crtZoom[n] = action[n][camConfig[n]*(objects.size()+1)+detectedObj[n]]; // selects action based on learnt results
+	}
+
+    
+}
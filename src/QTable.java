@@ -0,0 +1,100 @@
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public interface QTable {
+
+	static final long DENSE_LIMIT = 1L << 28; // the largest dense Q matrices (bytes of all cameras)
+
+
+	/**
+	 * Creates the Q matrices of the learning algorithms: one (z*(o+1))X(z*(o+1)) matrix per
+	 * camera that maps a state (zoom, detected objects) and the next state to a value, all
+	 * 0.0 at first. Dense matrices are used while they fit in DENSE_LIMIT, sparse ones (that
+	 * only store the values that were updated) for larger numbers of objects. Both give the
+	 * same values bit for bit.
+	 * @param camCount The number of cameras.
+	 * @param zoomCount The number of zoom levels.
+	 * @param objCount The number of objects.
+	 * @return The Q matrices.
+	 */
+	static QTable create(int camCount, int zoomCount, int objCount) {
+		long stateCount = (long)zoomCount * (objCount+1);
+		if (camCount * stateCount * stateCount * 8 <= DENSE_LIMIT)
+			return new DenseQTable(camCount, zoomCount, objCount);
+		return new SparseQTable(camCount, zoomCount, objCount);
+	}
+
+
+	/**
+	 * @param zoom The index of a zoom level.
+	 * @param detectedObj A number of detected objects (0..objCount).
+	 * @return The index of the state.
+	 */
+	int getState(int zoom, int detectedObj);
+
+
+	/**
+	 * @return The number of states of a camera.
+	 */
+	int getStateCount();
+
+
+	/**
+	 * @param n The index of the camera.
+	 * @param state The current state.
+	 * @param next The next state.
+	 * @return The Q value of moving from the state to the next state.
+	 */
+	double get(int n, int state, int next);
+
+
+	/**
+	 * Finds the maximum value in the row of a state.
+	 * @param n The index of the camera.
+	 * @param state A state.
+	 * @return The highest Q value of the state.
+	 */
+	double getMax(int n, int state);
+
+
+	/**
+	 * Applies the Q-learning update to the value of moving from a state to the next state:
+	 * q + alpha * (r + gamma * max(Q[next]) - q).
+	 * @param n The index of the camera.
+	 * @param state The current state.
+	 * @param next The next state.
+	 * @param reward The reward of the move.
+	 * @param alpha The learning rate.
+	 * @param gamma The discount factor.
+	 */
+	void update(int n, int state, int next, double reward, double alpha, double gamma);
+
+
+	/**
+	 * @param n The index of the camera.
+	 * @param state A state.
+	 * @return The next states of the values of the row that are kept (at least every value
+	 * that is not 0.0), in increasing order. Setting them in a new table restores the row.
+	 */
+	int[] getStored(int n, int state);
+
+
+	/**
+	 * Sets a value (e.g. to restore a saved table).
+	 * @param n The index of the camera.
+	 * @param state The current state.
+	 * @param next The next state.
+	 * @param value The Q value of moving from the state to the next state.
+	 */
+	void set(int n, int state, int next, double value);
+
+
+	/**
+	 * Sums the Q values of a camera over the number of detected objects of the next state
+	 * (0..objCount-1), which leaves one value per next zoom for each state (the QF matrix).
+	 * @param n The index of the camera.
+	 * @return A (z*(o+1))X(z) matrix (the rows of the states with all objects detected stay 0.0).
+	 */
+	double[][] getZoomValues(int n);
+}
@@ -1,4 +1,13 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.UncheckedIOException;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
 *
@@ -27,6 +36,24 @@ public class RandomNumberGenerator {
 		this.random = new Random();
 	}
 
+
+
+    /**
+     * Creates independent generators (e.g. one per camera) from a seed. Each one is seeded by
+     * a split of a SplittableRandom, so a stream gives the same numbers whichever thread draws
+     * from it, and the streams do not depend on each other.
+     * @param seed initial seed
+     * @param count the number of generators
+     * @return
+     */
+	public static RandomNumberGenerator[] split(long seed, int count) {
+		SplittableRandom root = new SplittableRandom(seed);
+		RandomNumberGenerator[] streams = new RandomNumberGenerator[count];
+		for (int i=0 ; i<count ; i++)
+			streams[i] = new RandomNumberGenerator(root.split().nextLong());
+		return streams;
+	}
+
 	
     /**
      * get a random double number
@@ -46,6 +73,42 @@ public class RandomNumberGenerator {
 	}
 	
 	
+    /**
+     * get the current state of the generator (e.g. to save it with a checkpoint)
+     * @return the serialized generator
+     */
+	public byte[] getState() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(random);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+
+    /**
+     * continue from a state saved by getState (the same numbers follow)
+     * @param state the serialized generator
+     * @throws IOException if the state is not a serialized generator
+     */
+	public void setState(byte[] state) throws IOException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state)) {
+			@Override
+			protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+				if (!desc.getName().equals(Random.class.getName()))
+					throw new InvalidClassException(desc.getName(), "Not a random number generator state");
+				return super.resolveClass(desc);
+			}
+		}) {
+			this.random = (Random) in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Not a random number generator state", e);
+		}
+	}
+	
+	
     /**
      * return initial seed
      * @return
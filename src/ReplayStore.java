@@ -0,0 +1,58 @@
+import java.util.ArrayList;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class ReplayStore implements ObjectPositions {
+	private Trajectory trajectory; // the recorded motion the objects replay
+	private double[] x, y; // position of each object at the current step
+	private int step; // the current time step of the replay
+
+
+	/**
+	 * Constructor
+	 * The positions of objects that replay a recorded motion instead of simulating it. The
+	 * objects become read-only views: their positions go through the store, and they only
+	 * move with all objects, one recorded step at a time.
+	 * @param objects The objects of the scenario, in its order.
+	 * @param trajectory The recorded motion of the same scenario and seed.
+	 */
+	public ReplayStore(ArrayList<Object> objects, Trajectory trajectory) {
+		if (trajectory.getObjectCount() != objects.size())
+			throw new IllegalArgumentException("The trajectory has "+trajectory.getObjectCount()+" objects, the scenario "+objects.size());
+		this.trajectory = trajectory;
+		this.x = new double[objects.size()];
+		this.y = new double[objects.size()];
+		trajectory.getPositions(0, x, y);
+		for (int m=0 ; m<objects.size() ; m++)
+			objects.get(m).attach(this, m);
+	}
+
+
+	/**
+	 * Reads the positions of the next step from the trajectory.
+	 */
+	@Override
+	public void updateAll() {
+		trajectory.getPositions(++step, x, y);
+	}
+
+
+	@Override
+	public double getX(int m) {
+		return x[m];
+	}
+
+
+	@Override
+	public double getY(int m) {
+		return y[m];
+	}
+
+
+	@Override
+	public int size() {
+		return x.length;
+	}
+}
@@ -3,6 +3,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -11,20 +12,21 @@ import java.util.Scanner;
 */
 public class ResultWriter {
 
-	public ResultWriter(String destination, String outputPath, String[] input, int steps) throws IOException {
-//      int difference = 0;
-		int baselineSum = 0;
-		int optimalSum = 0;
-		int zoomoutSum = 0;
-		int randomSum = 0;
-		int eGreedySum = 0;
-		int qLearningSum = 0;
-		int qLearningegSum = 0;
-		int sarsaSum = 0;
-		int eGreedyActualDOSum = 0;
-		int eGreedyIntendedDOSum = 0;
-		int oneHopRandomSum = 0;
-		int oneHopOptimalSum = 0;
+	/**
+	 * Constructor
+	 * Joins the result files of the algorithms into '*-destination.csv' (one column per
+	 * algorithm, in the given order), prints the ratio of the summed min k-cover of each
+	 * algorithm to that of the optimal algorithm and deletes the joined files.
+	 * @param destination The name of the joined file.
+	 * @param outputPath The path to output folder.
+	 * @param input The names of the algorithms whose result files are joined.
+	 * @param labels The names of the algorithms in the printed ratios (in the order of input).
+	 * @param steps Number of time steps the algorithms ran for.
+	 * @throws IOException If a result file cannot be read or written.
+	 */
+	public ResultWriter(String destination, String outputPath, String[] input, String[] labels, int steps) throws IOException {
+		int[] sums = new int[input.length];
+		int optimal = Arrays.asList(input).indexOf("optimal");
 
 		DecimalFormat df = new DecimalFormat("#.##");
 
@@ -45,50 +47,8 @@ public class ResultWriter {
             	String value = sc[i].nextLine();
                 out.print(value+"\t");
                 
-                if (step > 0) {
-//	                if (i == 1)
-//	                	difference += Integer.parseInt(value);
-//	                if (i == 4)
-//	                	difference -= Integer.parseInt(value);
-                	switch (i) {
-                		case 0:
-                			baselineSum += Integer.parseInt(value);
-                			break;
-                		case 1:
-                			optimalSum += Integer.parseInt(value);
-                			break;
-                		case 2:
-                			zoomoutSum += Integer.parseInt(value);
-                			break;
-                		case 3:
-                			randomSum += Integer.parseInt(value);
-                			break;
-                		case 4:
-                			eGreedySum += Integer.parseInt(value);
-                			break;
-                		case 5:
-                			qLearningSum += Integer.parseInt(value);
-                			break;
-                		case 6:
-                			qLearningegSum += Integer.parseInt(value);
-                			break;
-                		case 7:
-                			sarsaSum += Integer.parseInt(value);
-                			break;
-                		case 8:
-                			eGreedyActualDOSum += Integer.parseInt(value);
-                			break;
-                		case 9:
-                			eGreedyIntendedDOSum += Integer.parseInt(value);
-                			break;
-                		case 10:
-                			oneHopRandomSum += Integer.parseInt(value);
-                			break;
-                		case 11:
-                			oneHopOptimalSum += Integer.parseInt(value);
-                			break;
-                	}
-                }
+                if (step > 0)
+                	sums[i] += Integer.parseInt(value);
             }
             out.println();
         }
@@ -98,17 +58,11 @@ public class ResultWriter {
         out.close();
         
         System.out.println("====================================");
-        System.out.println("Baseline--Optimal ratio = " + df.format(1.0 * baselineSum / optimalSum));
-        System.out.println("ZoomOut--Optimal ratio = " + df.format(1.0 * zoomoutSum / optimalSum));
-        System.out.println("Random--Optimal ratio = " + df.format(1.0 * randomSum / optimalSum));
-        System.out.println("\u03B5greedy--Optimal ratio = " + df.format(1.0 * eGreedySum / optimalSum));
-        System.out.println("QLearning--Optimal ratio = " + df.format(1.0 * qLearningSum / optimalSum));
-        System.out.println("\u03B5GQLearning--Optimal ratio = " + df.format(1.0 * qLearningegSum / optimalSum));
-        System.out.println("Sarsa--Optimal ratio = " + df.format(1.0 * sarsaSum / optimalSum));
-        System.out.println("\u03B5greedyActualDO--Optimal ratio = " + df.format(1.0 * eGreedyActualDOSum / optimalSum));
-        System.out.println("\u03B5greedyIntendedDO--Optimal ratio = " + df.format(1.0 * eGreedyIntendedDOSum / optimalSum));
-        System.out.println("1-HopRandom--Optimal ratio = " + df.format(1.0 * oneHopRandomSum / optimalSum));
-        System.out.println("1-HopOptimal--Optimal ratio = " + df.format(1.0 * oneHopOptimalSum / optimalSum));
+        if (optimal >= 0) {
+        	for (int i=0 ; i<input.length ; i++)
+        		if (i != optimal)
+        			System.out.println(labels[i]+"--Optimal ratio = " + df.format(1.0 * sums[i] / sums[optimal]));
+        }
         
         // deleting redundant files
         for (int i=0 ; i<input.length ; i++) {
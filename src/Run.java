@@ -12,6 +12,7 @@ public class Run {
 //	private Field field;
 	private ArrayList<Camera> cameras;
 	private ArrayList<Object> objects;
+	private ObjectPositions store; // primitive state of the objects
 	private int steps;
 	private Double[] thresholds;
 	Double[][] dist;
@@ -425,6 +426,7 @@ public class Run {
 //		this.field = settings.field;
 		this.cameras = settings.cameras;
 		this.objects = settings.objects;
+		this.store = settings.store;
 		this.steps = steps;
 		this.thresholds = thresholds;
 		this.outputPath = outputPath;
@@ -525,8 +527,7 @@ public class Run {
 	 */
 	private void updateObjects() {
 		
-		for (Object obj : objects)
-			obj.update();
+		store.updateAll();
 	}
 
 	
@@ -538,7 +539,7 @@ public class Run {
 		dist = new Double[cameras.size()][objects.size()];
 		for (int n=0 ; n<cameras.size() ; n++) {
 			for (int m=0 ; m<objects.size() ; m++) {
-				dist[n][m] = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).x), 2) + Math.pow((cameras.get(n).y-objects.get(m).y), 2));
+				dist[n][m] = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).getX()), 2) + Math.pow((cameras.get(n).y-objects.get(m).getY()), 2));
 //				System.out.println("dist "+cameras.get(n).id+" to object "+objects.get(m).id+" is: "+dist[n][m]);
 			}
 		}
@@ -1,83 +1,86 @@
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-
 /**
 *
 * @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
 */
 
-public class Sarsa {
+public class Sarsa implements CoverageAlgorithm {
 	
 	private final Double EPSILON = 0.1;
-	private ArrayList<Camera> cameras;
-	private ArrayList<Object> objects;
 	private Double[] zooms;
-	private int steps;
-	private Double threshold;
-    private String outputPath;
+	private int objCount;
     private RandomNumberGenerator rand;
+    private int[][][][] stats; // (z*o)X(z)X(2) matrix for each camera
+    private int[][] zDo; // index 0 keeps previous zoom, index 1 keeps previous number of detected objects (after step 0)
+    private int[] camConfig;
+
+
+	/**
+	 * @return "sarsa"
+	 */
+	@Override
+	public String getName() {
+		return "sarsa";
+	}
+
+
+	/**
+	 * @return "Sarsa"
+	 */
+	@Override
+	public String getLabel() {
+		return "Sarsa";
+	}
+
 
-    
 	/**
-	 * Constructor
-	 * @param settings An instance of Settings class that contains all scenario settings.
-	 * @param steps Number of time steps the simulation will run for.
-	 * @param threshold The selected confidence threshold to determine whether an object
-	 * is detectable or not.
-	 * @param outputPath The path to output folder.
+	 * @param simulation The simulation that runs the algorithm.
+	 * @param settings The scenario of this run.
+	 * @param geometry The detectability of the objects of this run at the current step.
 	 */
-    public Sarsa (Settings settings, int steps, Double threshold, String outputPath) {
-		System.out.print("Running Sarsa algorithm .... ");
-		this.cameras = settings.cameras;
-		this.objects = settings.objects;
-		this.zooms = this.cameras.get(0).zooms;
-		this.steps = steps;
-		this.threshold = threshold;
-		this.outputPath = outputPath;
+	@Override
+	public void init(Simulation simulation, Settings settings, StepGeometry geometry) {
+		this.zooms = settings.cameras.get(0).zooms;
+		this.objCount = settings.objects.size();
     	this.rand = new RandomNumberGenerator(9011);
-		run();
-		System.out.println("COMPLETE\n");
+    	this.stats = new int[settings.cameras.size()][zooms.length*(objCount+1)][zooms.length][2];
+    	this.zDo = new int[settings.cameras.size()][2];
+    	this.camConfig = new int[settings.cameras.size()];
+	}
+
+
+	/**
+	 * Selects the zoom of each camera from the statistics of its previous zoom and detections.
+	 * @param step The current time step.
+	 * @return The zoom index of each camera.
+	 */
+	@Override
+	public int[] decide(int step) {
+    	for (int n=0 ; n<camConfig.length ; n++)
+    		camConfig[n] = getZoomIndex(n, step, stats[n][(zDo[n][0]*(objCount+1)+zDo[n][1])]);
+		return camConfig;
 	}
 
-    
-    /**
-     * Runs the Sarsa simulation
-     */
-    public void run(){
-    	int[][][][] stats = new int[cameras.size()][zooms.length*(objects.size()+1)][zooms.length][2]; // (z*o)X(z)X(2) matrix for each camera
-    	int[] minKCover = new int[steps];
-    	int[][] zDo = new int[cameras.size()][2]; // index 0 keeps previous zoom, index 1 keeps previous number of detected objects (after step 0)
-    	
-    	for (int step=0 ; step<steps ; step++) {
-        	int[] objCover = new int[objects.size()];
 
-        	for (int n=0 ; n<cameras.size() ; n++) {
-        		int crtZoom;
-				int crtDO = 0;
-        		crtZoom = getZoomIndex(n, step, stats[n][(zDo[n][0]*(objects.size()+1)+zDo[n][1])]);
-				for (int m=0 ; m<objects.size() ; m++) {
-					if (isDetectable(m, n, crtZoom)) {
-						crtDO++;
-						objCover[m]++;
-					}
-				}
-				if (step!=0) {
-					stats[n][(zDo[n][0]*(objects.size()+1)+zDo[n][1])][crtZoom][0]++;
-					stats[n][(zDo[n][0]*(objects.size()+1)+zDo[n][1])][crtZoom][1] += crtDO;
-				}
-				zDo[n][0] = crtZoom;
-				zDo[n][1] = crtDO;
-	    	}
-	    	
-        	minKCover[step] = minimum(objCover);
-//        	System.out.println("in step "+step+" objects are "+minKCover[step]+"-covered");        	
-        	updateObjects();
+	/**
+	 * Adds the detections of each camera to the statistics of its previous state and
+	 * current zoom.
+	 * @param step The current time step.
+	 * @param camConfig The zoom index of each camera.
+	 * @param detectedObj The number of objects each camera detects with its zoom.
+	 */
+	@Override
+	public void observe(int step, int[] camConfig, int[] detectedObj) {
+    	for (int n=0 ; n<camConfig.length ; n++) {
+    		int crtZoom = camConfig[n];
+    		int crtDO = detectedObj[n];
+			if (step!=0) {
+				stats[n][(zDo[n][0]*(objCount+1)+zDo[n][1])][crtZoom][0]++;
+				stats[n][(zDo[n][0]*(objCount+1)+zDo[n][1])][crtZoom][1] += crtDO;
+			}
+			zDo[n][0] = crtZoom;
+			zDo[n][1] = crtDO;
     	}
-    	
-    	exportResult(minKCover);
-    }
+	}
 
     
     /**
@@ -139,70 +142,4 @@ public class Sarsa {
 		}
 		return index;
 	}
-
-	
-	/**
-	 * Checked whether an object is detectable by a camera with a specified zoom (FOV).
-	 * @param m The index of the object in the list of objects
-	 * @param n The index of the camera in the list of cameras
-	 * @param z The index of the zoom level in the list of zoom values
-	 * @return True if the object is within FOV (zoom range) AND the camera can see it 
-	 * with a confidence above threshold. False otherwise.
-	 */
-	private boolean isDetectable(int m, int n, int z) {
-		Double distance = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).x), 2) + Math.pow((cameras.get(n).y-objects.get(m).y), 2));
-		if (distance > cameras.get(n).zooms[z])
-			return false;
-		else {
-			double b = 15;
-			Double conf = 0.95 * (b / (cameras.get(n).zooms[z] * distance)) - 0.15;
-			return (conf >= threshold);
-		}
-	}
-
-	
-	/**
-	 * Updates all objects one time step.
-	 */
-	private void updateObjects() {
-		
-		for (Object obj : objects)
-			obj.update();
-	}
-
-	/**
-	 * Writes the result to '*-sarsa.csv' file.
-	 * @param minKCover The array of minimum k-cover values
-	 */
-	private void exportResult(int[] minKCover) {
-        FileWriter outFile;
-		try {
-			outFile = new FileWriter(outputPath+"-sarsa.csv");
-	        PrintWriter out = new PrintWriter(outFile);
-	        
-	        out.println("Sarsa");
-	        for (int k : minKCover)
-	        	out.println(k);        
-	        out.close();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-	}
-
-
-	/**
-	 * Returns the minimum value of a list of integers < 10000.
-	 * @param list The list of integer
-	 * @return The minimum integer value in the list
-	 */
-	private static int minimum(int[] list) {
-		int min = 10000;
-		for (int i : list){
-			if (i < min)
-				min = i;
-		}
-		return min;
-	}
-
-    
 }
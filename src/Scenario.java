@@ -0,0 +1,596 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Scanner;
+import java.util.zip.CRC32;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class Scenario {
+	static final int MAGIC = 0x43535343; // "CSSC"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 20; // magic, version, hash of the scenario file, checksum of the rest
+	private final String XmlFilePath;
+	private final long hash; // the first 64 bits of the SHA-256 digest of the scenario file
+	private final Field field;
+	private final double[] zooms; // zoom levels of every camera
+	private final String[] camNames;
+	private final double[] camX, camY; // position of each camera
+	private final String[] objIds;
+	private final int[] timestep; // time step each object is added in
+	private final double[] x, y; // initial position of each object
+	private final double[] heading; // initial heading of each free moving object
+	private final double[] speed; // speed of each object
+	private final double[][] waypointX, waypointY; // [object][waypoint] waypoints of each object (null for free moving objects)
+
+
+	/**
+	 * Constructor
+	 * Parses a scenario file once. The scenario does not change after that, so every run
+	 * (and thread) can create its own world from it with Settings, without reading the file
+	 * again.
+	 * @param XmlFilePath The path to the scenario file.
+	 * @throws IOException If the file cannot be read or parsed.
+	 */
+	public Scenario(String XmlFilePath) throws IOException {
+		this(XmlFilePath, Files.readAllBytes(Paths.get(XmlFilePath)));
+	}
+
+
+	/**
+	 * Constructor (parses the content of a scenario file that is already read)
+	 * @param XmlFilePath The path to the scenario file.
+	 * @param xml The content of the scenario file.
+	 * @throws IOException If the content cannot be parsed.
+	 */
+	Scenario(String XmlFilePath, byte[] xml) throws IOException {
+		this.XmlFilePath = XmlFilePath;
+		this.hash = getHash(xml);
+		Parser parser = new Parser();
+		try (InputStream in = new ByteArrayInputStream(xml)) {
+			parser.parse(in);
+		} catch (XMLStreamException e) {
+			throw new IOException("Cannot parse the scenario "+XmlFilePath, e);
+		}
+
+		this.field = parser.field;
+		this.zooms = parser.zooms;
+		this.camNames = parser.camNames.toArray(new String[0]);
+		this.camX = toArray(parser.camX);
+		this.camY = toArray(parser.camY);
+		parser.objIds.addAll(parser.eventIds); // the objects of the events follow the other objects
+		parser.timestep.addAll(parser.eventTimestep);
+		parser.x.addAll(parser.eventX);
+		parser.y.addAll(parser.eventY);
+		parser.heading.addAll(parser.eventHeading);
+		parser.speed.addAll(parser.eventSpeed);
+		parser.waypointX.addAll(parser.eventWaypointX);
+		parser.waypointY.addAll(parser.eventWaypointY);
+		int objCount = parser.objIds.size();
+		this.objIds = parser.objIds.toArray(new String[0]);
+		this.timestep = new int[objCount];
+		for (int m=0 ; m<objCount ; m++)
+			timestep[m] = parser.timestep.get(m);
+		this.x = toArray(parser.x);
+		this.y = toArray(parser.y);
+		this.heading = toArray(parser.heading);
+		this.speed = toArray(parser.speed);
+		this.waypointX = parser.waypointX.toArray(new double[0][]);
+		this.waypointY = parser.waypointY.toArray(new double[0][]);
+	}
+
+
+	/**
+	 * Constructor (reads a scenario compiled by compile())
+	 * @param XmlFilePath The path to the scenario file it was compiled from.
+	 * @param compiled The compiled scenario (from its start).
+	 * @throws IOException If the data is not a compiled scenario of this version.
+	 */
+	Scenario(String XmlFilePath, ByteBuffer compiled) throws IOException {
+		this.XmlFilePath = XmlFilePath;
+		try {
+			compiled.order(ByteOrder.LITTLE_ENDIAN);
+			if (compiled.getInt() != MAGIC || compiled.getInt() != VERSION)
+				throw new IOException("Not a compiled scenario of version "+VERSION);
+			this.hash = compiled.getLong();
+			if (compiled.getInt() != getChecksum(compiled))
+				throw new IOException("Corrupt compiled scenario");
+			this.field = new Field(compiled.getDouble(), compiled.getDouble(), compiled.getDouble(), compiled.getDouble());
+			this.zooms = getDoubles(compiled);
+
+			int camCount = compiled.getInt();
+			this.camNames = new String[camCount];
+			this.camX = new double[camCount];
+			this.camY = new double[camCount];
+			for (int n=0 ; n<camCount ; n++) {
+				camNames[n] = getString(compiled);
+				camX[n] = compiled.getDouble();
+				camY[n] = compiled.getDouble();
+			}
+
+			int objCount = compiled.getInt();
+			this.objIds = new String[objCount];
+			this.timestep = new int[objCount];
+			this.x = new double[objCount];
+			this.y = new double[objCount];
+			this.heading = new double[objCount];
+			this.speed = new double[objCount];
+			this.waypointX = new double[objCount][];
+			this.waypointY = new double[objCount][];
+			for (int m=0 ; m<objCount ; m++) {
+				objIds[m] = getString(compiled);
+				timestep[m] = compiled.getInt();
+				x[m] = compiled.getDouble();
+				y[m] = compiled.getDouble();
+				heading[m] = compiled.getDouble();
+				speed[m] = compiled.getDouble();
+				waypointX[m] = getDoubles(compiled);
+				waypointY[m] = getDoubles(compiled);
+			}
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException("Truncated compiled scenario", e);
+		}
+	}
+
+
+	/**
+	 * Encodes the scenario in a compact binary form (little-endian): a header (magic, version,
+	 * hash of the scenario file, CRC-32 of the rest), the field, the zoom levels, the cameras, then the initial
+	 * state and waypoints of each object.
+	 * @return The compiled scenario (positioned at its start).
+	 */
+	public ByteBuffer compile() {
+		int bytes = HEADER_BYTES + 4*8 + 4 + 8*zooms.length + 4 + 4;
+		for (int n=0 ; n<camNames.length ; n++)
+			bytes += getSize(camNames[n]) + 2*8;
+		for (int m=0 ; m<objIds.length ; m++)
+			bytes += getSize(objIds[m]) + 4 + 4*8 + 2*4 + ((waypointX[m] == null) ? 0 : 2*8*waypointX[m].length);
+
+		ByteBuffer compiled = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		compiled.putInt(MAGIC).putInt(VERSION).putLong(hash).putInt(0);
+		compiled.putDouble(field.minX).putDouble(field.minY).putDouble(field.maxX).putDouble(field.maxY);
+		putDoubles(compiled, zooms);
+		compiled.putInt(camNames.length);
+		for (int n=0 ; n<camNames.length ; n++) {
+			putString(compiled, camNames[n]);
+			compiled.putDouble(camX[n]).putDouble(camY[n]);
+		}
+		compiled.putInt(objIds.length);
+		for (int m=0 ; m<objIds.length ; m++) {
+			putString(compiled, objIds[m]);
+			compiled.putInt(timestep[m]);
+			compiled.putDouble(x[m]).putDouble(y[m]).putDouble(heading[m]).putDouble(speed[m]);
+			putDoubles(compiled, waypointX[m]);
+			putDoubles(compiled, waypointY[m]);
+		}
+		compiled.flip();
+		compiled.position(HEADER_BYTES);
+		compiled.putInt(HEADER_BYTES-4, getChecksum(compiled));
+		compiled.position(0);
+		return compiled;
+	}
+
+
+	/**
+	 * @param buffer A compiled scenario, positioned after its header.
+	 * @return The CRC-32 of the rest of the buffer (the position does not change).
+	 */
+	private static int getChecksum(ByteBuffer buffer) {
+		CRC32 crc = new CRC32();
+		int position = buffer.position();
+		if (buffer.hasArray())
+			crc.update(buffer.array(), buffer.arrayOffset() + position, buffer.remaining());
+		else {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			buffer.position(position);
+			crc.update(bytes);
+		}
+		return (int)crc.getValue();
+	}
+
+
+	/**
+	 * @return The path to the scenario file.
+	 */
+	public String getPath() {
+		return XmlFilePath;
+	}
+
+
+	/**
+	 * @return The first 64 bits of the SHA-256 digest of the scenario file, which identifies
+	 * its content.
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+
+	/**
+	 * @param content The content of a scenario file.
+	 * @return The first 64 bits of the SHA-256 digest of the content.
+	 */
+	public static long getHash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			long hash = 0;
+			for (int i=0 ; i<8 ; i++)
+				hash = (hash << 8) | (digest[i] & 0xff);
+			return hash;
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+
+	/**
+	 * @return The field of the scenario (shared by all worlds, not to be modified).
+	 */
+	public Field getField() {
+		return field;
+	}
+
+
+	/**
+	 * @return A copy of the zoom levels of the cameras.
+	 */
+	public Double[] getZooms() {
+		Double[] copy = new Double[zooms.length];
+		for (int z=0 ; z<zooms.length ; z++)
+			copy[z] = zooms[z];
+		return copy;
+	}
+
+
+	/**
+	 * @return The number of cameras.
+	 */
+	public int getCameraCount() {
+		return camNames.length;
+	}
+
+
+	/**
+	 * @param n The index of the camera.
+	 * @return The name of the camera.
+	 */
+	public String getCameraName(int n) {
+		return camNames[n];
+	}
+
+
+	/**
+	 * @param n The index of the camera.
+	 * @return The x coordinate of the camera.
+	 */
+	public double getCameraX(int n) {
+		return camX[n];
+	}
+
+
+	/**
+	 * @param n The index of the camera.
+	 * @return The y coordinate of the camera.
+	 */
+	public double getCameraY(int n) {
+		return camY[n];
+	}
+
+
+	/**
+	 * @return The number of objects (the objects of the events last).
+	 */
+	public int getObjectCount() {
+		return objIds.length;
+	}
+
+
+	/**
+	 * @param m The index of the object.
+	 * @return The id of the object (its features or its event name).
+	 */
+	public String getObjectId(int m) {
+		return objIds[m];
+	}
+
+
+	/**
+	 * @param m The index of the object.
+	 * @return The time step the object is added in.
+	 */
+	public int getTimestep(int m) {
+		return timestep[m];
+	}
+
+
+	/**
+	 * @return A copy of the initial x coordinate of each object.
+	 */
+	public double[] getInitialX() {
+		return x.clone();
+	}
+
+
+	/**
+	 * @return A copy of the initial y coordinate of each object.
+	 */
+	public double[] getInitialY() {
+		return y.clone();
+	}
+
+
+	/**
+	 * @return A copy of the initial heading of each object.
+	 */
+	public double[] getInitialHeading() {
+		return heading.clone();
+	}
+
+
+	/**
+	 * @return A copy of the speed of each object.
+	 */
+	public double[] getSpeed() {
+		return speed.clone();
+	}
+
+
+	/**
+	 * @param m The index of the object.
+	 * @return The x coordinates of the waypoints of the object (null for a free moving
+	 * object). Shared by all worlds, not to be modified.
+	 */
+	public double[] getWaypointX(int m) {
+		return waypointX[m];
+	}
+
+
+	/**
+	 * @param m The index of the object.
+	 * @return The y coordinates of the waypoints of the object (null for a free moving
+	 * object). Shared by all worlds, not to be modified.
+	 */
+	public double[] getWaypointY(int m) {
+		return waypointY[m];
+	}
+
+
+	private static int getSize(String text) {
+		return 4 + ((text == null) ? 0 : text.getBytes(StandardCharsets.UTF_8).length);
+	}
+
+
+	private static void putString(ByteBuffer buffer, String text) {
+		if (text == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		buffer.putInt(bytes.length).put(bytes);
+	}
+
+
+	private static String getString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0)
+			return null;
+		if (length > buffer.remaining())
+			throw new BufferUnderflowException();
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+
+	private static void putDoubles(ByteBuffer buffer, double[] values) {
+		if (values == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		buffer.putInt(values.length);
+		for (double value : values)
+			buffer.putDouble(value);
+	}
+
+
+	private static double[] getDoubles(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0)
+			return null;
+		if (length > buffer.remaining() / 8)
+			throw new BufferUnderflowException();
+		double[] values = new double[length];
+		buffer.asDoubleBuffer().get(values);
+		buffer.position(buffer.position() + 8*length);
+		return values;
+	}
+
+
+	private static double[] toArray(ArrayList<Double> list) {
+		double[] array = new double[list.size()];
+		for (int i=0 ; i<array.length ; i++)
+			array[i] = list.get(i);
+		return array;
+	}
+
+
+	/**
+	 * Reads a scenario file in a single streaming pass (StAX), without building the document
+	 * tree in memory. The result is the same as the tree-based reading: the first simulation
+	 * and zoom elements, all cameras, then all objects followed by all 'add object' events,
+	 * each in document order.
+	 */
+	private static class Parser {
+		Field field;
+		double[] zooms = new double[0];
+		ArrayList<String> camNames = new ArrayList<String>();
+		ArrayList<Double> camX = new ArrayList<Double>();
+		ArrayList<Double> camY = new ArrayList<Double>();
+		ArrayList<String> objIds = new ArrayList<String>(), eventIds = new ArrayList<String>();
+		ArrayList<Integer> timestep = new ArrayList<Integer>(), eventTimestep = new ArrayList<Integer>();
+		ArrayList<Double> x = new ArrayList<Double>(), eventX = new ArrayList<Double>();
+		ArrayList<Double> y = new ArrayList<Double>(), eventY = new ArrayList<Double>();
+		ArrayList<Double> heading = new ArrayList<Double>(), eventHeading = new ArrayList<Double>();
+		ArrayList<Double> speed = new ArrayList<Double>(), eventSpeed = new ArrayList<Double>();
+		ArrayList<double[]> waypointX = new ArrayList<double[]>(), eventWaypointX = new ArrayList<double[]>();
+		ArrayList<double[]> waypointY = new ArrayList<double[]>(), eventWaypointY = new ArrayList<double[]>();
+
+
+		void parse(InputStream in) throws XMLStreamException {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+			XMLStreamReader reader = factory.createXMLStreamReader(in);
+			boolean zoomRead = false;
+
+			while (reader.hasNext()) {
+				if (reader.next() != XMLStreamConstants.START_ELEMENT)
+					continue;
+				switch (reader.getLocalName()) {
+				case "simulation":
+					if (field == null)
+						getField(reader);
+					break;
+				case "zoom":
+					if (!zoomRead)
+						getZooms(reader);
+					zoomRead = true;
+					break;
+				case "camera":
+					camNames.add(reader.getAttributeValue(null, "name"));
+					camX.add(Double.parseDouble(reader.getAttributeValue(null, "x")));
+					camY.add(Double.parseDouble(reader.getAttributeValue(null, "y")));
+					break;
+				case "object":
+					getObject(reader);
+					break;
+				case "event":
+					getEvent(reader);
+					break;
+				}
+			}
+			reader.close();
+		}
+
+
+		/**
+		 * Reading field details
+		 */
+		private void getField(XMLStreamReader reader) {
+			field = new Field(Double.parseDouble(reader.getAttributeValue(null, "min_x")),
+					Double.parseDouble(reader.getAttributeValue(null, "min_y")),
+					Double.parseDouble(reader.getAttributeValue(null, "max_x")),
+					Double.parseDouble(reader.getAttributeValue(null, "max_y")));
+		}
+
+
+		/**
+		 * Reading cameras' zoom levels from input xml file (any number of levels)
+		 */
+		private void getZooms(XMLStreamReader reader) throws XMLStreamException {
+			String nZoom = getText(reader);
+			Scanner scanner = new Scanner(nZoom);
+			scanner.useDelimiter(" ");
+
+			ArrayList<Double> levels = new ArrayList<Double>();
+			while (scanner.hasNextDouble())
+				levels.add(scanner.nextDouble());
+
+			scanner.close();
+			zooms = toArray(levels);
+		}
+
+
+		/**
+		 * Reading object settings from input xml file
+		 */
+		private void getObject(XMLStreamReader reader) {
+			objIds.add(reader.getAttributeValue(null, "features"));
+			timestep.add(0);
+			x.add(Double.parseDouble(reader.getAttributeValue(null, "x")));
+			y.add(Double.parseDouble(reader.getAttributeValue(null, "y")));
+			heading.add(Double.parseDouble(reader.getAttributeValue(null, "heading")));
+			speed.add(Double.parseDouble(reader.getAttributeValue(null, "speed")));
+			waypointX.add(null);
+			waypointY.add(null);
+		}
+
+
+		/**
+		 * Reading (event)object settings with waypoints from input xml file (other events
+		 * are skipped)
+		 */
+		private void getEvent(XMLStreamReader reader) throws XMLStreamException {
+			if (!("object".equals(reader.getAttributeValue(null, "participant")) &&
+					"add".equals(reader.getAttributeValue(null, "event"))))
+				return;
+
+			String name = reader.getAttributeValue(null, "name");
+			int step = Integer.parseInt(reader.getAttributeValue(null, "timestep"));
+			double objSpeed = Double.parseDouble(reader.getAttributeValue(null, "speed"));
+
+			ArrayList<Double> wx = new ArrayList<Double>();
+			ArrayList<Double> wy = new ArrayList<Double>();
+			int depth = 1;
+			while (depth > 0) {
+				int type = reader.next();
+				if (type == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+					if (reader.getLocalName().equals("waypoint")) {
+						wx.add(Double.parseDouble(reader.getAttributeValue(null, "x")));
+						wy.add(Double.parseDouble(reader.getAttributeValue(null, "y")));
+					}
+				}
+				else if (type == XMLStreamConstants.END_ELEMENT)
+					depth--;
+			}
+
+			// the object starts at its first waypoint
+			eventIds.add(name);
+			eventTimestep.add(step);
+			eventX.add(wx.get(0));
+			eventY.add(wy.get(0));
+			eventHeading.add(0.0);
+			eventSpeed.add(objSpeed);
+			eventWaypointX.add(toArray(wx));
+			eventWaypointY.add(toArray(wy));
+		}
+
+
+		/**
+		 * Reads the text of the current element, including the text of its nested elements.
+		 * @return The text up to the end of the element.
+		 */
+		private String getText(XMLStreamReader reader) throws XMLStreamException {
+			StringBuilder text = new StringBuilder();
+			int depth = 1;
+			while (depth > 0) {
+				int type = reader.next();
+				if (type == XMLStreamConstants.START_ELEMENT)
+					depth++;
+				else if (type == XMLStreamConstants.END_ELEMENT)
+					depth--;
+				else if (type == XMLStreamConstants.CHARACTERS || type == XMLStreamConstants.CDATA
+						|| type == XMLStreamConstants.SPACE)
+					text.append(reader.getText());
+			}
+			return text.toString();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class ScenarioCache {
+	private Path cacheDir;
+
+
+	/**
+	 * Constructor
+	 * A folder of compiled scenarios, one file per scenario content ('<hash>.scenario', named
+	 * by the first 64 bits of the SHA-256 digest of the scenario file). Loading a scenario
+	 * reads the compiled file instead of parsing the XML, as long as the XML has not changed;
+	 * an edited scenario has a new hash, so it is parsed and compiled again.
+	 * @param cacheDir The path of the folder (created when the first scenario is compiled).
+	 */
+	public ScenarioCache(String cacheDir) {
+		this.cacheDir = Paths.get(cacheDir);
+	}
+
+
+	/**
+	 * Loads a scenario from its compiled file, or parses the XML and compiles it (a scenario
+	 * that cannot be compiled is still returned).
+	 * @param XmlFilePath The path to the scenario file.
+	 * @return The scenario.
+	 * @throws IOException If the scenario file cannot be read or parsed.
+	 */
+	public Scenario load(String XmlFilePath) throws IOException {
+		byte[] xml = Files.readAllBytes(Paths.get(XmlFilePath));
+		long hash = Scenario.getHash(xml);
+		Path compiledPath = getPath(hash);
+
+		if (Files.exists(compiledPath)) {
+			try {
+				Scenario scenario = new Scenario(XmlFilePath, read(compiledPath));
+				if (scenario.getHash() == hash)
+					return scenario;
+				System.out.println("Compiled scenario "+compiledPath+" does not match "+XmlFilePath+", it is compiled again");
+			} catch (IOException e) {
+				System.out.println("Compiled scenario "+compiledPath+" cannot be read ("+e.getMessage()+"), it is compiled again");
+			}
+		}
+
+		Scenario scenario = new Scenario(XmlFilePath, xml);
+		try {
+			write(scenario.compile(), compiledPath);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return scenario;
+	}
+
+
+	/**
+	 * @param hash The hash of a scenario file.
+	 * @return The path of the compiled scenario of that content.
+	 */
+	public Path getPath(long hash) {
+		return cacheDir.resolve(String.format("%016x.scenario", hash));
+	}
+
+
+	/**
+	 * @param path The path of a compiled scenario.
+	 * @return The content of the file.
+	 * @throws IOException If the file cannot be read.
+	 */
+	private static ByteBuffer read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate((int)channel.size());
+			while (buffer.hasRemaining())
+				if (channel.read(buffer) < 0)
+					break;
+			buffer.flip();
+			return buffer;
+		}
+	}
+
+
+	/**
+	 * Writes a compiled scenario to a temporary file and moves it in place, so concurrent runs
+	 * never read a partly written file.
+	 * @param compiled The compiled scenario.
+	 * @param path The path of the compiled scenario.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void write(ByteBuffer compiled, Path path) throws IOException {
+		Files.createDirectories(cacheDir);
+		Path temp = Files.createTempFile(cacheDir, "scenario", ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				while (compiled.hasRemaining())
+					channel.write(compiled);
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+}
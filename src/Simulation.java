@@ -0,0 +1,306 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class Simulation {
+	private Scenario scenario; // the scenario every run creates its world from
+	private long seed;
+	private Trajectory trajectory; // the object motion every run replays (null to simulate it in each run)
+	private int steps;
+	private Double threshold;
+	private String outputPath;
+	private int threads; // threads of the optimal searches and of the Q-learning training (1 = serial)
+	private int cycles; // training cycles of the learning algorithms
+	private HashMap<Integer, TrainingCounts> trainingCounts = new HashMap<Integer, TrainingCounts>(); // detections of the training motion, by the first cycle they count
+	private int trainingUsers; // learning algorithms of the run that have not trained yet (0 = unknown, the tables are not kept)
+	private HashMap<String, int[]> step0CamConfigs = new HashMap<String, int[]>(); // configuration each algorithm selected in step 0
+	private HashMap<String, Long> times = new HashMap<String, Long>(); // running time of each finished algorithm in ms
+
+
+	/**
+	 * Constructor
+	 * The simulation loop that every CoverageAlgorithm shares: in each step it asks the
+	 * algorithm for a camera configuration, computes the min k-cover and the detections of the
+	 * configuration from the detectability of the step, reports them back to the algorithm and
+	 * moves the objects. Each run gets a world of its own from the parsed scenario, so
+	 * algorithms can run at the same time.
+	 * @param scenario The parsed scenario.
+	 * @param seed The seed of the random number generator of the scenario.
+	 * @param trajectory The recorded motion of the scenario (null to simulate it in each run).
+	 * @param steps Number of time steps the simulation will run for.
+	 * @param threshold The selected confidence threshold to determine whether an object
+	 * is detectable or not.
+	 * @param outputPath The path to output folder.
+	 * @param threads The number of threads of the optimal searches and of the Q-learning
+	 * training (1 = serial).
+	 * @param cycles The number of training cycles of the learning algorithms.
+	 */
+	public Simulation(Scenario scenario, long seed, Trajectory trajectory, int steps, Double threshold, String outputPath, int threads, int cycles) {
+		this.scenario = scenario;
+		this.seed = seed;
+		this.trajectory = trajectory;
+		this.steps = steps;
+		this.threshold = threshold;
+		this.outputPath = outputPath;
+		this.threads = threads;
+		this.cycles = cycles;
+	}
+
+
+	/**
+	 * @return A fresh world of the scenario (the objects at their initial state, with a random
+	 * number generator of their own). Cheap, so a run resets the world by creating a new one.
+	 */
+	public Settings newSettings() {
+		return new Settings(scenario, new RandomNumberGenerator(seed), trajectory);
+	}
+
+
+	/**
+	 * Runs an algorithm over all steps and writes its min k-cover of each step to '*-name.csv'.
+	 * @param algorithm The algorithm (a new instance for each run).
+	 * @return The min k-cover of each step.
+	 */
+	public int[] run(CoverageAlgorithm algorithm) {
+		return run(new CoverageAlgorithm[] {algorithm})[0];
+	}
+
+
+	/**
+	 * Runs algorithms in lockstep over one copy of the scenario: the objects move once per
+	 * step and the detectability of a step is computed once, then every algorithm selects its
+	 * configuration of the step (in the given order, so an algorithm can read the step 0
+	 * configuration of an earlier one) before the objects move again. Writes the min k-cover
+	 * of each algorithm to its '*-name.csv'.
+	 * @param algorithms The algorithms (new instances, each after the algorithms it depends on).
+	 * @return The min k-cover of each algorithm in each step.
+	 */
+	public int[][] run(CoverageAlgorithm[] algorithms) {
+		String[] names = new String[algorithms.length];
+		for (int a=0 ; a<algorithms.length ; a++)
+			names[a] = algorithms[a].getName();
+		System.out.println("Running "+String.join(", ", names)+" algorithm"+(algorithms.length>1 ? "s in lockstep" : "")+" ....");
+		Settings settings = newSettings();
+		ObjectPositions store = settings.store;
+		StepGeometry geometry = new StepGeometry(settings.cameras, settings.objects, threshold);
+		long[] time = new long[algorithms.length]; // nanoseconds spent by each algorithm (excluding the shared motion and geometry)
+		for (int a=0 ; a<algorithms.length ; a++) {
+			long start = System.nanoTime();
+			algorithms[a].init(this, settings, geometry);
+			time[a] += System.nanoTime() - start;
+		}
+
+		int camCount = settings.cameras.size();
+		int objCount = settings.objects.size();
+		int[][] minKCover = new int[algorithms.length][steps];
+		int[] objCover = new int[objCount];
+		int[] detectedObj = new int[camCount];
+		for (int step=0 ; step<steps ; step++) {
+			for (int a=0 ; a<algorithms.length ; a++) {
+				long start = System.nanoTime();
+				int[] camConfig = algorithms[a].decide(step);
+				if (step == 0) {
+					synchronized (step0CamConfigs) {
+						step0CamConfigs.put(names[a], camConfig.clone());
+					}
+				}
+
+				Arrays.fill(objCover, 0);
+				for (int n=0 ; n<camCount ; n++) {
+					int count = 0;
+					boolean[] detected = geometry.getDetectable(n, camConfig[n]);
+					for (int m=0 ; m<objCount ; m++) {
+						if (detected[m]) {
+							count++;
+							objCover[m]++;
+						}
+					}
+					detectedObj[n] = count;
+				}
+				minKCover[a][step] = minimum(objCover);
+				algorithms[a].observe(step, camConfig, detectedObj);
+				time[a] += System.nanoTime() - start;
+			}
+
+			store.updateAll();
+			geometry.update();
+		}
+		for (int a=0 ; a<algorithms.length ; a++) {
+			algorithms[a].finish();
+			exportResult(algorithms[a], minKCover[a]);
+			synchronized (times) {
+				times.put(names[a], time[a] / 1000000);
+			}
+		}
+		System.out.println(String.join(", ", names)+" COMPLETE\n");
+		return minKCover;
+	}
+
+
+	/**
+	 * Writes the result of an algorithm to '*-name.csv' file.
+	 * @param algorithm The algorithm.
+	 * @param minKCover The array of minimum k-cover values
+	 */
+	private void exportResult(CoverageAlgorithm algorithm, int[] minKCover) {
+		FileWriter outFile;
+		try {
+			outFile = new FileWriter(outputPath+"-"+algorithm.getName()+".csv");
+			PrintWriter out = new PrintWriter(outFile);
+
+			out.println(algorithm.getLabel());
+			for (int k : minKCover)
+				out.println(k);
+			out.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Returns the minimum value of a list of integers < 10000.
+	 * @param list The list of integer
+	 * @return The minimum integer value in the list
+	 */
+	private static int minimum(int[] list) {
+		int min = 10000;
+		for (int i : list){
+			if (i < min)
+				min = i;
+		}
+		return min;
+	}
+
+
+	/**
+	 * Gives read access to the camera configuration an algorithm selected in step 0.
+	 * @param name The name of an algorithm that has run (or runs earlier in a lockstep run).
+	 * @return A list camera configurations.
+	 */
+	public int[] getStep0CamConfig(String name) {
+		synchronized (step0CamConfigs) {
+			int[] camConfig = step0CamConfigs.get(name);
+			if (camConfig == null)
+				throw new IllegalStateException("The "+name+" algorithm has not run yet");
+			return camConfig;
+		}
+	}
+
+
+	/**
+	 * @param name The name of an algorithm.
+	 * @return The time the algorithm spent in its last run in ms (the shared motion and
+	 * geometry of a lockstep run are not included; 0 if it has not run).
+	 */
+	public long getTime(String name) {
+		synchronized (times) {
+			Long time = times.get(name);
+			return (time == null) ? 0 : time;
+		}
+	}
+
+
+	/**
+	 * @return The parsed scenario.
+	 */
+	public Scenario getScenario() {
+		return scenario;
+	}
+
+
+	/**
+	 * @return The seed of the random number generator of the scenario.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+
+	/**
+	 * @return Number of time steps the simulation runs for.
+	 */
+	public int getSteps() {
+		return steps;
+	}
+
+
+	/**
+	 * @return The confidence threshold of detection.
+	 */
+	public Double getThreshold() {
+		return threshold;
+	}
+
+
+	/**
+	 * @return The number of threads of the optimal searches and of the Q-learning training
+	 * (1 = serial).
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+
+	/**
+	 * @return The number of training cycles of the learning algorithms.
+	 */
+	public int getCycles() {
+		return cycles;
+	}
+
+
+	/**
+	 * Sets the number of learning algorithms of the run, so the detections of their training
+	 * are computed once and released after the last one has trained (see getTrainingCounts).
+	 * @param users The number of learning algorithms that will train in this simulation.
+	 */
+	public void setTrainingUsers(int users) {
+		synchronized (trainingCounts) {
+			this.trainingUsers = users;
+		}
+	}
+
+
+	/**
+	 * Gives the learning algorithms the detections of their training, computed by the first
+	 * one that asks for them (the training motion only depends on the scenario and the seed).
+	 * The training objects move on a store of their own that is not recorded, so the recorded
+	 * trajectory of the run only keeps the steps of the run. The table is kept until every
+	 * learning algorithm set by setTrainingUsers has called releaseTrainingCounts (without
+	 * them, it is computed for each caller and not kept; see TrainingCounts for its size).
+	 * @param firstCycle The first cycle to train (0, or the cycles of a resumed checkpoint).
+	 * @return The number of objects each camera detects with each zoom in every step of the
+	 * training cycles from firstCycle on.
+	 */
+	public TrainingCounts getTrainingCounts(int firstCycle) {
+		synchronized (trainingCounts) {
+			TrainingCounts counts = trainingCounts.get(firstCycle);
+			if (counts == null) {
+				counts = new TrainingCounts(new Settings(scenario, new RandomNumberGenerator(seed)), threshold, steps, firstCycle, cycles);
+				if (trainingUsers > 0)
+					trainingCounts.put(firstCycle, counts);
+			}
+			return counts;
+		}
+	}
+
+
+	/**
+	 * Called once by every learning algorithm when it has trained (or loaded its training
+	 * from a checkpoint). The tables of the training are dropped after the last learning
+	 * algorithm of the run.
+	 */
+	public void releaseTrainingCounts() {
+		synchronized (trainingCounts) {
+			if (trainingUsers > 0 && --trainingUsers == 0)
+				trainingCounts.clear();
+		}
+	}
+}
@@ -0,0 +1,211 @@
+import java.util.Arrays;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class SparseQTable implements QTable {
+	private final int objCount;
+	private final int zoomCount;
+	private final int stateCount; // z*(o+1) states: a zoom and a number of detected objects
+	private final Row[][] rows; // [camera][state] the stored values of each row (null until a value of the row is updated)
+
+
+	/**
+	 * Constructor
+	 * Q matrices that only store the values that were updated: a camera only reaches a small
+	 * part of the (zoom, detected objects) pairs, so almost all of a dense matrix stays 0.0
+	 * (gigabytes for a thousand objects). Each row is an open-addressing map from the next
+	 * state to its value, kept in primitive arrays, that also keeps the maximum of the row.
+	 * @param camCount The number of cameras.
+	 * @param zoomCount The number of zoom levels.
+	 * @param objCount The number of objects.
+	 */
+	public SparseQTable(int camCount, int zoomCount, int objCount) {
+		this.objCount = objCount;
+		this.zoomCount = zoomCount;
+		this.stateCount = zoomCount * (objCount+1);
+		this.rows = new Row[camCount][stateCount];
+	}
+
+
+	@Override
+	public int getState(int zoom, int detectedObj) {
+		return zoom*(objCount+1) + detectedObj;
+	}
+
+
+	@Override
+	public int getStateCount() {
+		return stateCount;
+	}
+
+
+	@Override
+	public double get(int n, int state, int next) {
+		Row row = rows[n][state];
+		return (row == null) ? 0.0 : row.get(next);
+	}
+
+
+	/**
+	 * The maximum of the stored values, and 0.0 while some value of the row is not stored.
+	 */
+	@Override
+	public double getMax(int n, int state) {
+		Row row = rows[n][state];
+		return (row == null) ? 0.0 : row.getMax();
+	}
+
+
+	@Override
+	public void update(int n, int state, int next, double reward, double alpha, double gamma) {
+		Row row = rows[n][state];
+		if (row == null)
+			row = rows[n][state] = new Row();
+		double value = row.get(next);
+		double maxQ = getMax(n, next);
+		row.put(next, value + alpha * (reward + gamma * maxQ - value));
+	}
+
+
+	/**
+	 * The values that were updated (a stored 0.0 counts towards the maximum of a full row).
+	 */
+	@Override
+	public int[] getStored(int n, int state) {
+		Row row = rows[n][state];
+		if (row == null)
+			return new int[0];
+		long[] order = row.getOrder();
+		int[] stored = new int[order.length];
+		for (int i=0 ; i<order.length ; i++)
+			stored[i] = (int)(order[i] >>> 32);
+		return stored;
+	}
+
+
+	@Override
+	public void set(int n, int state, int next, double value) {
+		Row row = rows[n][state];
+		if (row == null)
+			row = rows[n][state] = new Row();
+		row.put(next, value);
+	}
+
+
+	/**
+	 * Only visits the stored values of each row, in the order of the next states, so the sums
+	 * are the same as the ones of the dense matrices (adding a 0.0 does not change a sum).
+	 */
+	@Override
+	public double[][] getZoomValues(int n) {
+		double[][] QF = new double[stateCount][zoomCount];
+		for (int state=0 ; state<stateCount ; state++) {
+			Row row = rows[n][state];
+			if (row == null || state % (objCount+1) == objCount)
+				continue;
+			long[] order = row.getOrder();
+			for (long entry : order) {
+				int next = (int)(entry >>> 32);
+				if (next % (objCount+1) < objCount)
+					QF[state][next / (objCount+1)] += row.values[(int)entry];
+			}
+		}
+		return QF;
+	}
+
+
+	/**
+	 * The stored values of a row: an open-addressing (linear probing) map from the next state
+	 * to the value, and the maximum of the row (recomputed when the largest value decreases).
+	 */
+	private class Row {
+		int[] keys = new int[8]; // next state + 1 (0 = empty slot)
+		double[] values = new double[8];
+		int size;
+		double max = 0.0; // the maximum of the row (valid unless dirty)
+		boolean dirty;
+
+
+		private int getSlot(int next) {
+			int mask = keys.length - 1;
+			int hash = next * 0x9E3779B9;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while (keys[slot] != 0 && keys[slot] != next+1)
+				slot = (slot+1) & mask;
+			return slot;
+		}
+
+
+		double get(int next) {
+			int slot = getSlot(next);
+			return (keys[slot] == 0) ? 0.0 : values[slot];
+		}
+
+
+		void put(int next, double value) {
+			int slot = getSlot(next);
+			double old = 0.0;
+			if (keys[slot] == 0) {
+				keys[slot] = next+1;
+				size++;
+				if (size == stateCount)
+					dirty = true; // the row no longer has a 0.0 that is not stored
+			}
+			else
+				old = values[slot];
+			values[slot] = value;
+
+			if (!dirty) {
+				if (value >= max)
+					max = value;
+				else if (old == max)
+					dirty = true;
+			}
+			if (2*size > keys.length)
+				grow();
+		}
+
+
+		double getMax() {
+			if (dirty) {
+				max = (size < stateCount) ? 0.0 : Double.NEGATIVE_INFINITY;
+				for (int slot=0 ; slot<keys.length ; slot++)
+					if (keys[slot] != 0 && values[slot] > max)
+						max = values[slot];
+				dirty = false;
+			}
+			return max;
+		}
+
+
+		/**
+		 * @return The stored entries sorted by next state, as (next state << 32 | slot).
+		 */
+		long[] getOrder() {
+			long[] order = new long[size];
+			int i = 0;
+			for (int slot=0 ; slot<keys.length ; slot++)
+				if (keys[slot] != 0)
+					order[i++] = (long)(keys[slot]-1) << 32 | slot;
+			Arrays.sort(order);
+			return order;
+		}
+
+
+		private void grow() {
+			int[] oldKeys = keys;
+			double[] oldValues = values;
+			keys = new int[oldKeys.length * 2];
+			values = new double[oldKeys.length * 2];
+			for (int slot=0 ; slot<oldKeys.length ; slot++) {
+				if (oldKeys[slot] != 0) {
+					int newSlot = getSlot(oldKeys[slot]-1);
+					keys[newSlot] = oldKeys[slot];
+					values[newSlot] = oldValues[slot];
+				}
+			}
+		}
+	}
+}
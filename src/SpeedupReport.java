@@ -0,0 +1,53 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.DecimalFormat;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class SpeedupReport {
+
+	/**
+	 * Runs the Optimal and 1-hop Optimal algorithms of the scenario in Main with 1..N threads
+	 * and reports the running times and speedups (relative to 1 thread) in '*-speedup.csv'.
+	 * @param args The maximum number of threads N (default: the number of processors).
+	 * @throws IOException If the scenario cannot be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : Main.THREADS;
+		long[][] times = new long[maxThreads][2];
+		Scenario scenario = Main.loadScenario();
+
+		for (int t=1 ; t<=maxThreads ; t++) {
+			long startTime = System.currentTimeMillis();
+			Simulation simulation = new Simulation(scenario, Main.seed, null, Main.STEPS, Main.THRESHOLD, Main.OutputFilePath, t, Main.QL_CYCLES);
+			simulation.run(new Optimal());
+			long optimalTime = System.currentTimeMillis();
+			simulation.run(new OneHopOptimal());
+			long oneHopOptimalTime = System.currentTimeMillis();
+			times[t-1][0] = optimalTime - startTime;
+			times[t-1][1] = oneHopOptimalTime - optimalTime;
+		}
+
+		DecimalFormat df = new DecimalFormat("#.##");
+		FileWriter outFile;
+		try {
+			outFile = new FileWriter(Main.OutputFilePath+"-speedup.csv");
+			PrintWriter out = new PrintWriter(outFile);
+
+			out.println("threads\toptimal ms\tspeedup\t1-hop optimal ms\tspeedup");
+			System.out.println("==========================================");
+			for (int t=1 ; t<=maxThreads ; t++) {
+				String line = t+"\t"+times[t-1][0]+"\t"+df.format(1.0 * times[0][0] / Math.max(1, times[t-1][0]))
+						+"\t"+times[t-1][1]+"\t"+df.format(1.0 * times[0][1] / Math.max(1, times[t-1][1]));
+				out.println(line);
+				System.out.println(line);
+			}
+			out.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,259 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class StepGeometry {
+	static final int GRID_MIN_OBJECTS = 256; // below this many objects scanning all of them is faster (see GridBenchmark)
+	private ArrayList<Camera> cameras;
+	private ArrayList<Object> objects;
+	private double[] camX, camY; // camera positions (cameras do not move)
+	private double[] objX, objY; // object positions at the current step
+	private double[][] radii; // [camera][zoom] detection radius of each zoom level
+	private double[][] radii2; // [camera][zoom] squared detection radius of each zoom level
+	private boolean[][][] detectable; // [camera][zoom][object] detectability at the current step
+	private boolean[][] ready; // [camera][zoom] true if the detectability row is filled for the current step
+	private ObjectGrid grid; // the objects bucketed by position (null to scan all objects)
+	private CoverageTable coverage; // the coverage table of the current step (null until it is asked for)
+
+
+	/**
+	 * Constructor
+	 * Keeps the detectability of the objects by each camera with each zoom (FOV) of the
+	 * current step in primitive arrays. A camera-zoom row of the table is computed the first
+	 * time it is asked for in a step, so every pair is evaluated at most once per step however
+	 * often the algorithms query it.
+	 * @param cameras The list of cameras.
+	 * @param objects The list of objects (at their current positions).
+	 * @param threshold The selected confidence threshold to determine whether an object
+	 * is detectable or not.
+	 */
+	public StepGeometry(ArrayList<Camera> cameras, ArrayList<Object> objects, Double threshold) {
+		this(cameras, objects, threshold, new DetectionModel());
+	}
+
+
+	/**
+	 * Constructor
+	 * The detection model turns the confidence threshold into a squared detection radius per
+	 * zoom level, so detectability is a squared distance comparison (no sqrt or division).
+	 * With many objects, they are bucketed in a uniform grid over the field whose cells are as
+	 * large as the largest zoom, and a camera only visits the objects of the cells its
+	 * detection radius overlaps.
+	 * @param cameras The list of cameras.
+	 * @param objects The list of objects (at their current positions).
+	 * @param threshold The selected confidence threshold to determine whether an object
+	 * is detectable or not.
+	 * @param model The confidence curve of the cameras.
+	 */
+	public StepGeometry(ArrayList<Camera> cameras, ArrayList<Object> objects, Double threshold, DetectionModel model) {
+		this(cameras, objects, threshold, model, objects.size() >= GRID_MIN_OBJECTS);
+	}
+
+
+	/**
+	 * Constructor
+	 * @param cameras The list of cameras.
+	 * @param objects The list of objects (at their current positions).
+	 * @param threshold The selected confidence threshold to determine whether an object
+	 * is detectable or not.
+	 * @param model The confidence curve of the cameras.
+	 * @param useGrid True to bucket the objects in a uniform grid, false to scan all objects.
+	 */
+	public StepGeometry(ArrayList<Camera> cameras, ArrayList<Object> objects, Double threshold, DetectionModel model, boolean useGrid) {
+		this.cameras = cameras;
+		this.objects = objects;
+		this.camX = new double[cameras.size()];
+		this.camY = new double[cameras.size()];
+		this.radii = new double[cameras.size()][];
+		this.radii2 = new double[cameras.size()][];
+		double maxZoom = 0;
+		for (int n=0 ; n<cameras.size() ; n++) {
+			Camera cam = cameras.get(n);
+			camX[n] = cam.x;
+			camY[n] = cam.y;
+			radii[n] = new double[cam.zooms.length];
+			radii2[n] = new double[cam.zooms.length];
+			for (int z=0 ; z<cam.zooms.length ; z++) {
+				radii[n][z] = model.getRadius(cam.zooms[z], threshold);
+				radii2[n][z] = model.getSquaredRadius(cam.zooms[z], threshold);
+				maxZoom = Math.max(maxZoom, cam.zooms[z]);
+			}
+		}
+		this.objX = new double[objects.size()];
+		this.objY = new double[objects.size()];
+		this.detectable = new boolean[cameras.size()][][];
+		this.ready = new boolean[cameras.size()][];
+		for (int n=0 ; n<cameras.size() ; n++) {
+			detectable[n] = new boolean[radii2[n].length][objects.size()];
+			ready[n] = new boolean[radii2[n].length];
+		}
+		if (useGrid && !objects.isEmpty() && maxZoom > 0)
+			this.grid = new ObjectGrid(objects.get(0).field, maxZoom, objects.size());
+		update();
+	}
+
+
+	/**
+	 * Reads the current object positions, rebuilds the grid and invalidates the detectability
+	 * table. Must be called after every step of the objects.
+	 */
+	public void update() {
+		for (int m=0 ; m<objX.length ; m++) {
+			Object obj = objects.get(m);
+			objX[m] = obj.getX();
+			objY[m] = obj.getY();
+		}
+		if (grid != null)
+			grid.rebuild(objX, objY);
+		for (int n=0 ; n<camX.length ; n++)
+			Arrays.fill(ready[n], false);
+		coverage = null;
+	}
+
+
+	/**
+	 * Fills the detectability of all objects by a camera with a zoom at the current step.
+	 * @param n The index of the camera in the list of cameras
+	 * @param z The index of the zoom level in the list of zoom values
+	 */
+	private void fill(int n, int z) {
+		double cx = camX[n];
+		double cy = camY[n];
+		double r2 = radii2[n][z];
+		boolean[] row = detectable[n][z];
+		if (grid == null) {
+			for (int m=0 ; m<row.length ; m++) {
+				double dx = cx - objX[m];
+				double dy = cy - objY[m];
+				row[m] = dx*dx + dy*dy <= r2;
+			}
+		}
+		else {
+			Arrays.fill(row, false);
+			double r = radii[n][z];
+			int c0 = grid.getColumn(cx - r), c1 = grid.getColumn(cx + r);
+			int r0 = grid.getRow(cy - r), r1 = grid.getRow(cy + r);
+			for (int gr=r0 ; gr<=r1 ; gr++) {
+				int end = grid.getCellEnd(c1, gr); // the cells of a row are contiguous
+				for (int i=grid.getCellStart(c0, gr) ; i<end ; i++) {
+					int m = grid.getObject(i);
+					double dx = cx - objX[m];
+					double dy = cy - objY[m];
+					row[m] = dx*dx + dy*dy <= r2;
+				}
+			}
+		}
+		ready[n][z] = true;
+	}
+
+
+	/**
+	 * Checked whether an object is detectable by a camera with a specified zoom (FOV).
+	 * @param m The index of the object in the list of objects
+	 * @param n The index of the camera in the list of cameras
+	 * @param z The index of the zoom level in the list of zoom values
+	 * @return True if the object is within FOV (zoom range) AND the camera can see it
+	 * with a confidence above threshold. False otherwise.
+	 */
+	public boolean isDetectable(int m, int n, int z) {
+		if (!ready[n][z])
+			fill(n, z);
+		return detectable[n][z][m];
+	}
+
+
+	/**
+	 * Returns the detectability of all objects by a camera with a specified zoom (FOV).
+	 * @param n The index of the camera in the list of cameras
+	 * @param z The index of the zoom level in the list of zoom values
+	 * @return True at the index of each object that is detectable at the current step. The
+	 * array is owned by the geometry and is overwritten in later steps.
+	 */
+	public boolean[] getDetectable(int n, int z) {
+		if (!ready[n][z])
+			fill(n, z);
+		return detectable[n][z];
+	}
+
+
+	/**
+	 * Counts the objects a camera detects with each of its zooms at the current step, in one
+	 * pass over the objects (the distance of an object is compared with the radius of every
+	 * zoom, so the counts are the ones of the detectability rows).
+	 * @param n The index of the camera in the list of cameras
+	 * @param counts Receives the number of detectable objects of zoom z at offset+z.
+	 * @param offset The index of the count of zoom 0 in counts.
+	 */
+	public void countDetectable(int n, int[] counts, int offset) {
+		double cx = camX[n];
+		double cy = camY[n];
+		double[] r2 = radii2[n];
+		Arrays.fill(counts, offset, offset+r2.length, 0);
+		if (grid == null) {
+			for (int m=0 ; m<objX.length ; m++) {
+				double dx = cx - objX[m];
+				double dy = cy - objY[m];
+				double d2 = dx*dx + dy*dy;
+				for (int z=0 ; z<r2.length ; z++)
+					if (d2 <= r2[z])
+						counts[offset+z]++;
+			}
+		}
+		else {
+			double r = 0;
+			for (int z=0 ; z<r2.length ; z++)
+				r = Math.max(r, radii[n][z]);
+			int c0 = grid.getColumn(cx - r), c1 = grid.getColumn(cx + r);
+			int r0 = grid.getRow(cy - r), r1 = grid.getRow(cy + r);
+			for (int gr=r0 ; gr<=r1 ; gr++) {
+				int end = grid.getCellEnd(c1, gr); // the cells of a row are contiguous
+				for (int i=grid.getCellStart(c0, gr) ; i<end ; i++) {
+					int m = grid.getObject(i);
+					double dx = cx - objX[m];
+					double dy = cy - objY[m];
+					double d2 = dx*dx + dy*dy;
+					for (int z=0 ; z<r2.length ; z++)
+						if (d2 <= r2[z])
+							counts[offset+z]++;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * @param m The index of the object in the list of objects
+	 * @param n The index of the camera in the list of cameras
+	 * @return The distance between the camera and the object at the current step.
+	 */
+	public double getDistance(int m, int n) {
+		double dx = camX[n] - objX[m];
+		double dy = camY[n] - objY[m];
+		return Math.sqrt(dx*dx + dy*dy);
+	}
+
+
+	/**
+	 * Returns the coverage table of the current step. It is built once per step and shared by
+	 * all callers, which must not modify it.
+	 * @return The objects detected by each camera with each zoom at the current step.
+	 */
+	public CoverageTable getCoverageTable() {
+		if (coverage != null)
+			return coverage;
+		int zoomCount = radii2.length > 0 ? radii2[0].length : 0;
+		coverage = new CoverageTable(cameras.size(), zoomCount, objects.size());
+		for (int n=0 ; n<cameras.size() ; n++) {
+			for (int z=0 ; z<zoomCount ; z++) {
+				boolean[] detected = getDetectable(n, z);
+				for (int m=0 ; m<objects.size() ; m++)
+					if (detected[m])
+						coverage.set(n, z, m);
+			}
+		}
+		return coverage;
+	}
+}
@@ -0,0 +1,80 @@
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class TrainingCounts {
+	private int camCount;
+	private int zoomCount; // the largest number of zoom levels of a camera
+	private int steps; // steps of a cycle (the detections of steps+1 positions are kept)
+	private int firstCycle; // the first cycle of the table (the training resumes after the earlier ones)
+	private int[][] counts; // [cycle-firstCycle][(step*camCount + n)*zoomCount + z] objects camera n detects with zoom z
+
+
+	/**
+	 * Constructor
+	 * The number of objects each camera detects with each of its zooms in every step of the
+	 * training of the learning algorithms. The training objects keep moving from one cycle to
+	 * the next, so the table covers (steps+1) steps of the motion per cycle, after the motion
+	 * of the cycles that were trained before. It is computed once, and a training cycle only
+	 * looks up the counts of the zooms it selects. The table takes 4*(steps+1)*cameras*zooms
+	 * bytes per cycle, whatever the number of objects: about 144 MB for 1000 cycles of 300
+	 * steps with 40 cameras and 3 zooms (fewer cycles, or a checkpoint to resume from, make
+	 * it smaller).
+	 * @param settings A fresh world of the scenario that simulates its motion (its objects are
+	 * moved to the end of the training).
+	 * @param threshold The selected confidence threshold to determine whether an object
+	 * is detectable or not.
+	 * @param steps The number of steps of a training cycle.
+	 * @param firstCycle The first cycle to count (0 for a new training).
+	 * @param cycles The number of training cycles.
+	 */
+	public TrainingCounts(Settings settings, Double threshold, int steps, int firstCycle, int cycles) {
+		this.camCount = settings.cameras.size();
+		this.steps = steps;
+		this.firstCycle = firstCycle;
+		for (Camera cam : settings.cameras)
+			zoomCount = Math.max(zoomCount, cam.zooms.length);
+		this.counts = new int[cycles-firstCycle][(steps+1) * camCount * zoomCount];
+
+		for (long step=0 ; step<(long)firstCycle*(steps+1) ; step++)
+			settings.store.updateAll();
+		StepGeometry geometry = new StepGeometry(settings.cameras, settings.objects, threshold);
+		for (int i=0 ; i<counts.length ; i++) {
+			int[] cycle = counts[i];
+			for (int step=0 ; step<steps+1 ; step++) {
+				for (int n=0 ; n<camCount ; n++)
+					geometry.countDetectable(n, cycle, (step*camCount + n) * zoomCount);
+				settings.store.updateAll();
+				geometry.update();
+			}
+		}
+	}
+
+
+	/**
+	 * @param cycle The training cycle (firstCycle or later).
+	 * @param step The step of the cycle (0 to steps).
+	 * @param n The index of the camera in the list of cameras.
+	 * @param z The index of the zoom level in the list of zoom values.
+	 * @return The number of objects the camera detects with the zoom at that step.
+	 */
+	public int get(int cycle, int step, int n, int z) {
+		return counts[cycle-firstCycle][(step*camCount + n) * zoomCount + z];
+	}
+
+
+	/**
+	 * @return The first cycle of the table.
+	 */
+	public int getFirstCycle() {
+		return firstCycle;
+	}
+
+
+	/**
+	 * @return The number of steps of a training cycle.
+	 */
+	public int getSteps() {
+		return steps;
+	}
+}
@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class Trajectory {
+	static final int CHUNK_STEPS = 1024; // steps per buffer chunk
+	private ObjectPositions simulator; // the objects whose motion is recorded
+	private int objCount;
+	private ArrayList<double[]> chunks = new ArrayList<double[]>(); // [step][object] x and y of each object, CHUNK_STEPS steps per chunk
+	private int stepCount; // number of recorded steps
+	private int maxStepCount; // number of steps the recording is limited to
+
+
+	/**
+	 * Constructor
+	 * Records the positions of the objects of a scenario step by step, so the motion is
+	 * simulated once and every algorithm of a run replays it (the trajectories only depend on
+	 * the scenario and the seed of its random number generator). Steps are simulated the first
+	 * time they are asked for, up to the steps the algorithms evaluate: the recording is kept
+	 * in memory, so motion that only some algorithms need (e.g. the training cycles of
+	 * Q-Learning) runs on objects of its own instead.
+	 * @param settings A scenario that is only used for recording (its objects are moved).
+	 * @param maxStepCount The number of steps to record at most (the initial state and the
+	 * steps of a run).
+	 */
+	public Trajectory(Settings settings, int maxStepCount) {
+		this.simulator = settings.store;
+		this.objCount = simulator.size();
+		this.maxStepCount = maxStepCount;
+		record();
+	}
+
+
+	/**
+	 * Constructor (for subclasses that keep the recording elsewhere)
+	 */
+	protected Trajectory() {
+	}
+
+
+	/**
+	 * Appends the current positions of the simulated objects as the next step.
+	 */
+	private void record() {
+		int offset = (stepCount % CHUNK_STEPS) * objCount * 2;
+		if (offset == 0)
+			chunks.add(new double[CHUNK_STEPS * objCount * 2]);
+		double[] chunk = chunks.get(chunks.size()-1);
+		for (int m=0 ; m<objCount ; m++) {
+			chunk[offset + 2*m] = simulator.getX(m);
+			chunk[offset + 2*m + 1] = simulator.getY(m);
+		}
+		stepCount++;
+	}
+
+
+	/**
+	 * Copies the positions of all objects at a step, simulating the steps up to it first if
+	 * they are not recorded yet.
+	 * @param step The time step (0 is the initial state).
+	 * @param x The array that receives the x coordinate of each object.
+	 * @param y The array that receives the y coordinate of each object.
+	 * @throws IllegalArgumentException If the step is beyond the steps the recording is
+	 * limited to.
+	 */
+	public synchronized void getPositions(int step, double[] x, double[] y) {
+		if (step >= maxStepCount)
+			throw new IllegalArgumentException("Step "+step+" is beyond the "+maxStepCount+" steps of the trajectory");
+		while (stepCount <= step) {
+			simulator.updateAll();
+			record();
+		}
+		double[] chunk = chunks.get(step / CHUNK_STEPS);
+		int offset = (step % CHUNK_STEPS) * objCount * 2;
+		for (int m=0 ; m<objCount ; m++) {
+			x[m] = chunk[offset + 2*m];
+			y[m] = chunk[offset + 2*m + 1];
+		}
+	}
+
+
+	/**
+	 * @return The number of objects.
+	 */
+	public int getObjectCount() {
+		return objCount;
+	}
+
+
+	/**
+	 * @return The number of recorded steps.
+	 */
+	public synchronized int getStepCount() {
+		return stepCount;
+	}
+}
@@ -0,0 +1,178 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class TrajectoryFile extends Trajectory {
+	static final int MAGIC = 0x43535452; // "CSTR"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 32; // magic, version, scenario hash, seed, object count, step count
+	static final int STEP_COUNT_OFFSET = 28; // position of the step count in the header
+	static final long MAX_CHUNK_BYTES = 1 << 26; // bytes per mapped region (a region is limited to 2GB)
+	private Scenario scenario;
+	private long seed;
+	private int objCount;
+	private int stepCount; // number of steps in the file
+	private int chunkSteps; // steps per mapped region
+	private RandomAccessFile file;
+	private MappedByteBuffer header;
+	private ArrayList<MappedByteBuffer> regions = new ArrayList<MappedByteBuffer>(); // the mapped regions of the file after the header
+	private ArrayList<FloatBuffer> chunks = new ArrayList<FloatBuffer>(); // [step][object] x and y of each object, chunkSteps steps per region
+	private ObjectPositions simulator; // the objects that extend the file (null until the file is too short)
+
+
+	/**
+	 * Constructor
+	 * A trajectory that lives in a binary file instead of the heap: a header followed by the
+	 * x and y of each object in each step as float32. The file is memory mapped in regions,
+	 * so steps are paged in by the operating system when they are replayed and runs with
+	 * millions of steps and tens of thousands of objects do not have to fit in memory. A file
+	 * written for the same scenario (by content) and seed is reused; any other file at the path
+	 * is replaced. Steps beyond the end of the file are simulated and appended on demand.
+	 * Positions are rounded to float32, so detections right on the border of a detection
+	 * radius can differ from a run that keeps the trajectory in memory.
+	 * @param path The path of the trajectory file.
+	 * @param scenario The parsed scenario.
+	 * @param seed The seed of the random number generator of the scenario.
+	 * @throws IOException If the file cannot be read or written.
+	 */
+	public TrajectoryFile(String path, Scenario scenario, long seed) throws IOException {
+		this.scenario = scenario;
+		this.seed = seed;
+		this.objCount = scenario.getObjectCount();
+		this.chunkSteps = (int)Math.max(1, MAX_CHUNK_BYTES / Math.max(1, objCount * 8L));
+		long scenarioHash = scenario.getHash();
+
+		boolean reuse = new File(path).length() >= HEADER_BYTES;
+		this.file = new RandomAccessFile(path, "rw");
+		this.header = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		if (reuse && (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getLong(8) != scenarioHash
+				|| header.getLong(16) != seed || header.getInt(24) != objCount)) {
+			System.out.println("Trajectory file "+path+" does not match the scenario and seed, it is rewritten");
+			reuse = false;
+		}
+		if (reuse) {
+			stepCount = header.getInt(STEP_COUNT_OFFSET);
+			for (int c=0 ; c*chunkSteps<stepCount ; c++)
+				map(c);
+		}
+		else {
+			file.setLength(HEADER_BYTES);
+			header.putInt(0, MAGIC);
+			header.putInt(4, VERSION);
+			header.putLong(8, scenarioHash);
+			header.putLong(16, seed);
+			header.putInt(24, objCount);
+			header.putInt(STEP_COUNT_OFFSET, 0);
+		}
+	}
+
+
+	/**
+	 * Maps a region of the file (the file grows if the region is past its end).
+	 * @param c The index of the region.
+	 * @throws IOException If the region cannot be mapped.
+	 */
+	private void map(int c) throws IOException {
+		long bytes = (long)chunkSteps * objCount * 8;
+		MappedByteBuffer region = file.getChannel().map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + c*bytes, bytes);
+		region.order(ByteOrder.LITTLE_ENDIAN);
+		regions.add(region);
+		chunks.add(region.asFloatBuffer());
+	}
+
+
+	/**
+	 * Simulates the objects up to the end of the file (from the initial state, as the file
+	 * only keeps positions) and appends steps until a step is in the file.
+	 * @param step The time step that is needed.
+	 */
+	private void extend(int step) {
+		try {
+			if (simulator == null) {
+				simulator = new Settings(scenario, new RandomNumberGenerator(seed)).store;
+				for (int s=1 ; s<stepCount ; s++)
+					simulator.updateAll();
+			}
+			while (stepCount <= step) {
+				if (stepCount > 0)
+					simulator.updateAll();
+				if (stepCount % chunkSteps == 0)
+					map(stepCount / chunkSteps);
+				FloatBuffer chunk = chunks.get(stepCount / chunkSteps);
+				int offset = (stepCount % chunkSteps) * objCount * 2;
+				for (int m=0 ; m<objCount ; m++) {
+					chunk.put(offset + 2*m, (float)simulator.getX(m));
+					chunk.put(offset + 2*m + 1, (float)simulator.getY(m));
+				}
+				stepCount++;
+			}
+			header.putInt(STEP_COUNT_OFFSET, stepCount);
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot extend the trajectory file", e);
+		}
+	}
+
+
+	/**
+	 * Copies the positions of all objects at a step, simulating and appending the steps up to
+	 * it first if they are not in the file yet.
+	 * @param step The time step (0 is the initial state).
+	 * @param x The array that receives the x coordinate of each object.
+	 * @param y The array that receives the y coordinate of each object.
+	 */
+	@Override
+	public synchronized void getPositions(int step, double[] x, double[] y) {
+		if (stepCount <= step)
+			extend(step);
+		FloatBuffer chunk = chunks.get(step / chunkSteps);
+		int offset = (step % chunkSteps) * objCount * 2;
+		for (int m=0 ; m<objCount ; m++) {
+			x[m] = chunk.get(offset + 2*m);
+			y[m] = chunk.get(offset + 2*m + 1);
+		}
+	}
+
+
+	/**
+	 * @return The number of objects.
+	 */
+	@Override
+	public int getObjectCount() {
+		return objCount;
+	}
+
+
+	/**
+	 * @return The number of steps in the file.
+	 */
+	@Override
+	public synchronized int getStepCount() {
+		return stepCount;
+	}
+
+
+	/**
+	 * Writes the mapped steps back to the file and closes it. The mapped regions stay
+	 * readable until they are garbage collected.
+	 */
+	public synchronized void close() {
+		try {
+			for (MappedByteBuffer region : regions)
+				region.force();
+			header.force();
+			file.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+import java.util.Arrays;
+
+/**
+*
+* @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
+*/
+public class ZoomDominance {
+
+	/**
+	 * Drops every zoom option that detects a subset of the objects of an earlier (smaller index)
+	 * zoom option of the same camera. A configuration with the dropped zoom is never better
+	 * than the same configuration with the earlier zoom, which the search order visits first,
+	 * so the searches still select the same configuration as the exhaustive search.
+	 * @param coverage The objects detected by each camera with each zoom at the current step.
+	 * @param zoomOptions The zoom indexes (in ascending order) each camera may take.
+	 * @return The remaining zoom options of each camera (in ascending order).
+	 */
+	public static int[][] pruneOrdered(CoverageTable coverage, int[][] zoomOptions) {
+		int[][] pruned = new int[zoomOptions.length][];
+		for (int n=0 ; n<zoomOptions.length ; n++) {
+			int[] options = zoomOptions[n];
+			int[] kept = new int[options.length];
+			int count = 0;
+			for (int i=0 ; i<options.length ; i++) {
+				boolean dominated = false;
+				for (int j=0 ; j<i && !dominated ; j++)
+					dominated = isSubset(coverage.getMask(n, options[i]), coverage.getMask(n, options[j]));
+				if (!dominated)
+					kept[count++] = options[i];
+			}
+			pruned[n] = Arrays.copyOf(kept, count);
+		}
+		return pruned;
+	}
+
+
+	/**
+	 * Drops every zoom option that detects a strict subset of the objects of another zoom option
+	 * of the same camera, and keeps only the first of the zoom options that detect the same
+	 * objects. Whether a min k is reachable does not change, but the configuration selected
+	 * among equally good ones may, so it is meant for feasibility checks.
+	 * @param coverage The objects detected by each camera with each zoom at the current step.
+	 * @param zoomOptions The zoom indexes (in ascending order) each camera may take.
+	 * @return The remaining zoom options of each camera (in ascending order).
+	 */
+	public static int[][] prune(CoverageTable coverage, int[][] zoomOptions) {
+		int[][] pruned = new int[zoomOptions.length][];
+		for (int n=0 ; n<zoomOptions.length ; n++) {
+			int[] options = zoomOptions[n];
+			int[] kept = new int[options.length];
+			int count = 0;
+			for (int i=0 ; i<options.length ; i++) {
+				long[] mask = coverage.getMask(n, options[i]);
+				boolean dominated = false;
+				for (int j=0 ; j<options.length && !dominated ; j++) {
+					if (j != i && isSubset(mask, coverage.getMask(n, options[j])))
+						dominated = (j < i) || !isSubset(coverage.getMask(n, options[j]), mask);
+				}
+				if (!dominated)
+					kept[count++] = options[i];
+			}
+			pruned[n] = Arrays.copyOf(kept, count);
+		}
+		return pruned;
+	}
+
+
+	/**
+	 * @param a A bitmask of objects.
+	 * @param b A bitmask of objects.
+	 * @return True if every object in a is also in b.
+	 */
+	private static boolean isSubset(long[] a, long[] b) {
+		for (int w=0 ; w<a.length ; w++)
+			if ((a[w] & ~b[w]) != 0)
+				return false;
+		return true;
+	}
+
+
+	/**
+	 * Returns the size of a search space in orders of magnitude.
+	 * @param zoomOptions The zoom options of each camera.
+	 * @return log10 of the number of camera configurations (leaves).
+	 */
+	public static double log10Leaves(int[][] zoomOptions) {
+		double log = 0;
+		for (int[] options : zoomOptions)
+			log += Math.log10(options.length);
+		return log;
+	}
+}
@@ -1,136 +1,62 @@
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
 import java.util.Arrays;
 
 /**
 *
 * @author Arezoo Vejdanparast <vejdanpa@aston.ac.uk> & Ali Karami <ali.karami@alumni.york.ac.uk>
 */
-public class ZoomOut {
+public class ZoomOut implements CoverageAlgorithm {
 
-	private ArrayList<Camera> cameras;
-	private ArrayList<Object> objects;
-	private Double[] zooms;
-	private int steps;
-	private Double threshold;
-    private String outputPath;
     private int[] camConfig;
 
-    
+
 	/**
-	 * Constructor
-	 * @param settings An instance of Settings class that contains all scenario settings.
-	 * @param steps Number of time steps the simulation will run for.
-	 * @param threshold The selected confidence threshold to determine whether an object
-	 * is detectable or not.
-	 * @param outputPath The path to output folder.
+	 * @return "zoomout"
 	 */
-    public ZoomOut(Settings settings, int steps, Double threshold, String outputPath) {
-		System.out.print("Running Zoom Out algorithm .... ");
-		this.cameras = settings.cameras;
-		this.objects = settings.objects;
-		this.zooms = this.cameras.get(0).zooms;
-		this.steps = steps;
-		this.threshold = threshold;
-		this.outputPath = outputPath;
-		this.camConfig = new int[cameras.size()];
-		Arrays.fill(camConfig, zooms.length-1);
-		run();
-		System.out.println("COMPLETE\n");
-    }
+	@Override
+	public String getName() {
+		return "zoomout";
+	}
 
-    
-    /**
-     * Runs the Zoom Out algorithm simulation
-     */
-	private void run() {
-    	int[] minKCover = new int[steps];
-    	
-    	for (int step=0 ; step<steps ; step++) {
-        	int[] objCover = new int[objects.size()];
 
-        	for (int n=0 ; n<cameras.size() ; n++) {
-	    		int z = camConfig[n];
-				for (int m=0 ; m<objects.size() ; m++) {
-					if (isDetectable(m, n, z)) {
-						objCover[m]++;
-					}
-				}
-	    	}
-	    	
-        	minKCover[step] = minimum(objCover);
-//        	System.out.println("in step "+step+" objects are "+minKCover[step]+"-covered");        	
-        	updateObjects();
-    	}
-    	
-    	exportResult(minKCover);
-	}
-	
-	
 	/**
-	 * Checked whether an object is detectable by a camera with a specified zoom (FOV).
-	 * @param m The index of the object in the list of objects
-	 * @param n The index of the camera in the list of cameras
-	 * @param z The index of the zoom level in the list of zoom values
-	 * @return True if the object is within FOV (zoom range) AND the camera can see it 
-	 * with a confidence above threshold. False otherwise.
+	 * @return "ZoomOut"
 	 */
-	private boolean isDetectable(int m, int n, int z) {
-		Double distance = Math.sqrt(Math.pow((cameras.get(n).x-objects.get(m).x), 2) + Math.pow((cameras.get(n).y-objects.get(m).y), 2));
-		if (distance > cameras.get(n).zooms[z])
-			return false;
-		else {
-			double b = 15;
-			Double conf = 0.95 * (b / (cameras.get(n).zooms[z] * distance)) - 0.15;
-			return (conf >= threshold);
-		}
+	@Override
+	public String getLabel() {
+		return "ZoomOut";
 	}
 
-	
+
 	/**
-	 * Updates all objects one time step.
+	 * Sets every camera to its widest zoom.
+	 * @param simulation The simulation that runs the algorithm.
+	 * @param settings The scenario of this run.
+	 * @param geometry The detectability of the objects of this run at the current step.
 	 */
-	private void updateObjects() {
-		
-		for (Object obj : objects)
-			obj.update();
+	@Override
+	public void init(Simulation simulation, Settings settings, StepGeometry geometry) {
+		this.camConfig = new int[settings.cameras.size()];
+		Arrays.fill(camConfig, settings.cameras.get(0).zooms.length-1);
 	}
 
-	
+
 	/**
-	 * Writes the result to '*-zoomout.csv' file.
-	 * @param minKCover The array of minimum k-cover values
+	 * @param step The current time step.
+	 * @return The widest zoom index of each camera.
 	 */
-	private void exportResult(int[] minKCover) {
-        FileWriter outFile;
-		try {
-			outFile = new FileWriter(outputPath+"-zoomout.csv");
-	        PrintWriter out = new PrintWriter(outFile);
-	        
-	        out.println("ZoomOut");
-	        for (int k : minKCover)
-	        	out.println(k);        
-	        out.close();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+	@Override
+	public int[] decide(int step) {
+		return camConfig;
 	}
 
 
 	/**
-	 * Returns the minimum value of a list of integers < 10000.
-	 * @param list The list of integer
-	 * @return The minimum integer value in the list
+	 * The configuration does not change.
+	 * @param step The current time step.
+	 * @param camConfig The zoom index of each camera.
+	 * @param detectedObj The number of objects each camera detects with its zoom.
 	 */
-	private static int minimum(int[] list) {
-		int min = 10000;
-		for (int i : list){
-			if (i < min)
-				min = i;
-		}
-		return min;
+	@Override
+	public void observe(int step, int[] camConfig, int[] detectedObj) {
 	}
-
-}
\ No newline at end of file
+}